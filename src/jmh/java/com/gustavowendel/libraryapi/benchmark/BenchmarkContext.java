@@ -0,0 +1,58 @@
+package com.gustavowendel.libraryapi.benchmark;
+
+import com.gustavowendel.libraryapi.LibraryApiApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String database, String... arguments) {
+        return start(WebApplicationType.NONE, database, arguments);
+    }
+
+    static ConfigurableApplicationContext startServer(String database, String... arguments) {
+        return start(WebApplicationType.SERVLET, database, arguments);
+    }
+
+    static ConfigurableApplicationContext startReactiveServer(String database, String... arguments) {
+        List<String> args = new ArrayList<>(Arrays.asList(arguments));
+        args.add("--spring.profiles.active=reactive");
+        return start(WebApplicationType.REACTIVE, database, args.toArray(new String[0]));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type, String database, String... arguments) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> args = new ArrayList<>(Arrays.asList(arguments));
+        addDefault(args, "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_ON_EXIT=FALSE");
+        addDefault(args, "--spring.main.banner-mode=off");
+        addDefault(args, "--logging.level.root=WARN");
+        addDefault(args, "--server.port=0");
+        return new SpringApplicationBuilder(LibraryApiApplication.class)
+                .web(type)
+                .run(args.toArray(new String[0]));
+    }
+
+    /* Repeating a key on the command line joins the values, so a default is only added when not overridden. */
+    private static void addDefault(List<String> args, String argument) {
+        String key = argument.substring(0, argument.indexOf('=') + 1);
+        if (args.stream().noneMatch(arg -> arg.startsWith(key))) {
+            args.add(argument);
+        }
+    }
+
+    static void seedBooks(ConfigurableApplicationContext context, int rows) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("insert into book (id, title, author, isbn, version) " +
+                "select x, 'Title ' || x, 'Author ' || x, 'ISBN-' || x, 0 from system_range(1, " + rows + ")");
+        jdbc.update("alter sequence book_sequence restart with " + (rows + 100));
+    }
+}
@@ -0,0 +1,72 @@
+package com.gustavowendel.libraryapi.benchmark;
+
+import com.gustavowendel.libraryapi.api.dto.BookDTO;
+import com.gustavowendel.libraryapi.api.mapper.BookMapper;
+import com.gustavowendel.libraryapi.model.entity.Book;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookMappingBenchmark {
+
+    @Param({"100"})
+    int pageSize;
+
+    private ModelMapper modelMapper;
+    private BookMapper bookMapper;
+    private BookDTO dto;
+    private Book book;
+    private List<Book> page;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        bookMapper = new BookMapper();
+        dto = BookDTO.builder().title("As aventuras").author("Artur").isbn("001").build();
+        book = Book.builder().id(1L).title("As aventuras").author("Artur").isbn("001").build();
+        page = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            page.add(Book.builder().id(id).title("Title " + id).author("Author " + id).isbn("ISBN-" + id).build());
+        }
+    }
+
+    @Benchmark
+    public Book modelMapperToEntity() {
+        return modelMapper.map(dto, Book.class);
+    }
+
+    @Benchmark
+    public BookDTO modelMapperToDto() {
+        return modelMapper.map(book, BookDTO.class);
+    }
+
+    @Benchmark
+    public List<BookDTO> modelMapperPage() {
+        return page.stream().map(entity -> modelMapper.map(entity, BookDTO.class)).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Book bookMapperToEntity() {
+        return bookMapper.toEntity(dto);
+    }
+
+    @Benchmark
+    public BookDTO bookMapperToDto() {
+        return bookMapper.toDto(book);
+    }
+
+    @Benchmark
+    public List<BookDTO> bookMapperPage() {
+        return bookMapper.toDtoList(page);
+    }
+}
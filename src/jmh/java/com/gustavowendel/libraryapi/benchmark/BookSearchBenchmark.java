@@ -0,0 +1,58 @@
+package com.gustavowendel.libraryapi.benchmark;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.service.BookService;
+import com.gustavowendel.libraryapi.service.search.BookSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class BookSearchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int rows;
+
+    @Param({"false", "true"})
+    boolean searchIndex;
+
+    private ConfigurableApplicationContext context;
+    private BookService service;
+    private final Pageable pageRequest = PageRequest.of(0, 10);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("search-benchmark-" + rows, "--library.search.index.enabled=" + searchIndex);
+        BenchmarkContext.seedBooks(context, rows);
+        // the books are seeded after startup, so the index has to be built again
+        context.getBean(BookSearchIndex.class).build();
+        service = context.getBean(BookService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Book> findByTitle() {
+        long id = ThreadLocalRandom.current().nextLong(1, rows + 1);
+        return service.find(Book.builder().title("itle " + id).build(), pageRequest);
+    }
+
+    @Benchmark
+    public Page<Book> findByAuthorAndTitle() {
+        long id = ThreadLocalRandom.current().nextLong(1, rows + 1);
+        return service.find(Book.builder().author("UTHOR " + id).title(String.valueOf(id)).build(), pageRequest);
+    }
+}
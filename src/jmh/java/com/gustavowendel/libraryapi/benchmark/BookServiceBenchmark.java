@@ -0,0 +1,111 @@
+package com.gustavowendel.libraryapi.benchmark;
+
+import com.gustavowendel.libraryapi.api.dto.BookDTO;
+import com.gustavowendel.libraryapi.api.mapper.BookMapper;
+import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.repository.BookKeyset;
+import com.gustavowendel.libraryapi.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class BookServiceBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    int rows;
+
+    private ConfigurableApplicationContext context;
+    private BookService service;
+    private BookMapper mapper;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Pageable pageRequest = PageRequest.of(0, 10);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("book-benchmark-" + rows);
+        BenchmarkContext.seedBooks(context, rows);
+        service = context.getBean(BookService.class);
+        mapper = context.getBean(BookMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Book save() {
+        return service.save(newBook());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Book> saveAll() {
+        List<Book> books = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            books.add(newBook());
+        }
+        return service.saveAll(books);
+    }
+
+    @Benchmark
+    public Optional<Book> getById() {
+        return service.getById(randomId());
+    }
+
+    @Benchmark
+    public Page<Book> find() {
+        Book filter = Book.builder().title("title " + randomId()).build();
+        return service.find(filter, pageRequest);
+    }
+
+    @Benchmark
+    public Page<Book> findMiddlePageByOffset() {
+        return service.find(new Book(), PageRequest.of(rows / 2 / 10, 10, Sort.by("id")));
+    }
+
+    @Benchmark
+    public Slice<Book> findMiddlePageByKeyset() {
+        BookKeyset keyset = BookKeyset.first(Sort.by("id")).after(Book.builder().id((long) rows / 2).build());
+        return service.findAfter(new Book(), keyset, 10);
+    }
+
+    @Benchmark
+    public BookDTO controllerCreate() {
+        BookDTO dto = BookDTO.builder().title("Benchmark").author("JMH").isbn(nextIsbn()).build();
+        Book entity = mapper.toEntity(dto);
+        entity = service.save(entity);
+        return mapper.toDto(entity);
+    }
+
+    private Book newBook() {
+        return Book.builder().title("Benchmark").author("JMH").isbn(nextIsbn()).build();
+    }
+
+    private String nextIsbn() {
+        return "BENCH-" + sequence.incrementAndGet();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, rows + 1);
+    }
+}
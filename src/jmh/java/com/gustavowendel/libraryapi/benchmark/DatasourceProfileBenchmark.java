@@ -0,0 +1,94 @@
+package com.gustavowendel.libraryapi.benchmark;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Load test of the default datasource settings against the prod profile, both on a
+ * file-backed H2 database so writes actually reach the disk. Run with
+ * {@code -t <threads>} above the default pool size to see pool saturation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class DatasourceProfileBenchmark {
+
+    static final int BATCH_SIZE = 50;
+
+    @Param({"default", "prod"})
+    String profile;
+
+    @Param({"100000"})
+    int rows;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private BookService service;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("library-" + profile);
+        String url = "jdbc:h2:file:" + directory.resolve("library").toAbsolutePath()
+                + ("prod".equals(profile) ? ";QUERY_CACHE_SIZE=64" : "");
+        context = BenchmarkContext.start(null,
+                "--spring.profiles.active=" + profile,
+                "--spring.datasource.url=" + url);
+        BenchmarkContext.seedBooks(context, rows);
+        service = context.getBean(BookService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Optional<Book> getById() {
+        return service.getById(ThreadLocalRandom.current().nextLong(1, rows + 1));
+    }
+
+    @Benchmark
+    public List<Book> getBooksByIsbn() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Set<String> isbns = new HashSet<>();
+        int size = random.nextInt(1, 20);
+        while (isbns.size() < size) {
+            isbns.add("ISBN-" + random.nextInt(1, rows + 1));
+        }
+        return service.getBooksByIsbn(isbns);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Book> saveAll() {
+        List<Book> books = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            books.add(Book.builder().title("Load").author("Test").isbn("LOAD-" + sequence.incrementAndGet()).build());
+        }
+        return service.saveAll(books);
+    }
+}
@@ -0,0 +1,76 @@
+package com.gustavowendel.libraryapi.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent {@code POST /api/loans} against a running server, with Tomcat handling
+ * requests on platform threads or on virtual threads. Every request loans a different
+ * book and the loan table is emptied between iterations. Use {@code -t} to change the
+ * number of concurrent clients; above Tomcat's 200 platform threads requests queue.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(400)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class LoanCheckoutBenchmark {
+
+    @Param({"1000000"})
+    int rows;
+
+    @Param({"false", "true"})
+    boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbc;
+    private HttpClient client;
+    private URI loans;
+    private final AtomicLong nextBookId = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startServer("checkout-benchmark-" + rows,
+                "--spring.threads.virtual.enabled=" + virtualThreads);
+        BenchmarkContext.seedBooks(context, rows);
+        jdbc = context.getBean(JdbcTemplate.class);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        loans = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/loans");
+    }
+
+    @Setup(Level.Iteration)
+    public void clearLoans() {
+        jdbc.update("delete from loan");
+        nextBookId.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int checkout() throws IOException, InterruptedException {
+        String body = "{\"isbn\":\"ISBN-" + nextBookId.incrementAndGet() + "\",\"customer\":\"Benchmark\"}";
+        HttpRequest request = HttpRequest.newBuilder(loans)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Checkout failed with status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,66 @@
+package com.gustavowendel.libraryapi.benchmark;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.Loan;
+import com.gustavowendel.libraryapi.service.LoanService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Every invocation loans a different book, so each iteration is a fixed batch of
+ * checkouts and the loan table is emptied before the next one. Run with {@code -t <threads>}
+ * (at most {@code rows / BATCH_SIZE}) to compare how the active-loan guards scale with
+ * concurrent kiosks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = LoanServiceBenchmark.BATCH_SIZE)
+@Measurement(iterations = 5, batchSize = LoanServiceBenchmark.BATCH_SIZE)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class LoanServiceBenchmark {
+
+    static final int BATCH_SIZE = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    int rows;
+
+    @Param({"constraint", "striped"})
+    String guard;
+
+    private ConfigurableApplicationContext context;
+    private LoanService service;
+    private JdbcTemplate jdbc;
+    private final AtomicLong nextBookId = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("loan-benchmark-" + rows, "--library.loan.guard=" + guard);
+        BenchmarkContext.seedBooks(context, rows);
+        service = context.getBean(LoanService.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearLoans() {
+        jdbc.update("delete from loan");
+        nextBookId.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Loan save() {
+        Book book = Book.builder().id(nextBookId.incrementAndGet()).build();
+        Loan loan = Loan.builder().book(book).customer("Benchmark").loanDate(LocalDate.now()).build();
+        return service.save(loan);
+    }
+}
@@ -0,0 +1,89 @@
+package com.gustavowendel.libraryapi.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The same book lookup and loan checkout served by the servlet stack (Tomcat, one thread per
+ * request) and by the reactive profile (WebFlux on Netty, JDBC on a scheduler the size of the
+ * connection pool). Both share the services and the database, so the difference is the web
+ * layer and its threading model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(200)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class WebStackBenchmark {
+
+    @Param({"100000"})
+    int rows;
+
+    @Param({"servlet", "reactive"})
+    String stack;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbc;
+    private HttpClient client;
+    private String baseUrl;
+    private final AtomicLong nextBookId = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String database = "web-stack-benchmark-" + stack;
+        context = "reactive".equals(stack)
+                ? BenchmarkContext.startReactiveServer(database)
+                : BenchmarkContext.startServer(database);
+        BenchmarkContext.seedBooks(context, rows);
+        jdbc = context.getBean(JdbcTemplate.class);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    @Setup(Level.Iteration)
+    public void clearLoans() {
+        jdbc.update("delete from loan");
+        nextBookId.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int lookup() throws IOException, InterruptedException {
+        long id = ThreadLocalRandom.current().nextLong(1, rows + 1);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/books/" + id)).GET().build();
+        return expect(client.send(request, HttpResponse.BodyHandlers.discarding()), 200);
+    }
+
+    @Benchmark
+    public int checkout() throws IOException, InterruptedException {
+        String body = "{\"isbn\":\"ISBN-" + nextBookId.incrementAndGet() + "\",\"customer\":\"Benchmark\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/loans"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return expect(client.send(request, HttpResponse.BodyHandlers.discarding()), 201);
+    }
+
+    private static int expect(HttpResponse<Void> response, int status) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException("Request failed with status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -1,16 +1,42 @@
 package com.gustavowendel.libraryapi;
 
-import org.modelmapper.ModelMapper;
+import com.gustavowendel.libraryapi.api.mapper.BookMapper;
+import com.gustavowendel.libraryapi.api.mapper.LoanMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 @SpringBootApplication
+@EnableScheduling
 public class LibraryApiApplication {
 
     @Bean
-    public ModelMapper modelMapper(){
-        return new ModelMapper();
+    public BookMapper bookMapper(){
+        return new BookMapper();
+    }
+
+    @Bean
+    public LoanMapper loanMapper(){
+        return new LoanMapper(bookMapper());
+    }
+
+    /* Tomcat is on the classpath for the servlet stack; the reactive one runs on Netty's event loops. */
+    @Bean
+    @Profile("reactive")
+    public NettyReactiveWebServerFactory reactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    @Profile("reactive")
+    public Scheduler jdbcScheduler(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        return Schedulers.newBoundedElastic(poolSize, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "jdbc");
     }
 
     public static void main(String[] args) {
@@ -2,6 +2,9 @@ package com.gustavowendel.libraryapi.api;
 
 import com.gustavowendel.libraryapi.api.exception.ApiErros;
 import com.gustavowendel.libraryapi.exception.BusinessException;
+import com.gustavowendel.libraryapi.exception.IntegrityViolations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -9,8 +12,11 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.server.ResponseStatusException;
 
+import jakarta.validation.ConstraintViolationException;
+
 @RestControllerAdvice
 public class ApplicationControllerAdvice {
 
@@ -21,16 +27,39 @@ public class ApplicationControllerAdvice {
         return new ApiErros(bindingResult);
     }
 
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErros handlerWebExchangeBindException(WebExchangeBindException ex) {
+        return new ApiErros(ex.getBindingResult());
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErros handlerConstraintViolationException(ConstraintViolationException ex) {
+        return new ApiErros(ex);
+    }
+
     @ExceptionHandler(BusinessException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiErros handlerBusnessException(BusinessException ex) {
         return new ApiErros(ex);
     }
 
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErros handlerDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        return new ApiErros(IntegrityViolations.translate(ex));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ApiErros handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return new ApiErros("Resource was modified by another request");
+    }
 
     @ExceptionHandler(ResponseStatusException.class)
     @ResponseStatus
     public ResponseEntity handleResponseStatusException(ResponseStatusException ex){
-        return new ResponseEntity(new ApiErros(ex), ex.getStatus());
+        return new ResponseEntity(new ApiErros(ex), ex.getStatusCode());
     }
 }
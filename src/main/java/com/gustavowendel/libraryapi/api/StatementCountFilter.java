@@ -0,0 +1,61 @@
+package com.gustavowendel.libraryapi.api;
+
+import com.gustavowendel.libraryapi.service.metrics.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+@Slf4j
+@Component
+@Profile("!reactive")
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    private final int repeatedSelectThreshold;
+
+    public StatementCountFilter(ObjectProvider<MeterRegistry> registry,
+                                @Value("${library.statements.repeated-select-threshold:5}") int repeatedSelectThreshold) {
+        this.registry = registry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.repeatedSelectThreshold = repeatedSelectThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCounter.Statements statements = StatementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            StatementCounter.stop(statements);
+            record(request, statements);
+        }
+    }
+
+    private void record(HttpServletRequest request, StatementCounter.Statements statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        registry.summary("library.http.statements", "method", request.getMethod(), "uri", uri)
+                .record(statements.getTotal());
+
+        Map<String, Integer> repeated = statements.getRepeatedSelects(repeatedSelectThreshold);
+        if (!repeated.isEmpty()) {
+            registry.counter("library.http.repeated.selects", "method", request.getMethod(), "uri", uri).increment();
+            repeated.forEach((sql, count) ->
+                    log.warn("Possible N+1 on {} {}: {} executions of {}", request.getMethod(), uri, count, sql));
+        }
+    }
+}
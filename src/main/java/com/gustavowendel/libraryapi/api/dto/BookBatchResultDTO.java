@@ -0,0 +1,19 @@
+package com.gustavowendel.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookBatchResultDTO {
+
+    private List<BookDTO> created;
+
+    private List<String> duplicatedIsbns;
+}
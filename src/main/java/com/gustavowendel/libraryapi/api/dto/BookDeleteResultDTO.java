@@ -0,0 +1,18 @@
+package com.gustavowendel.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookDeleteResultDTO {
+
+    private int requested;
+
+    // Ids that didn't exist or whose books have loans are not deleted.
+    private int deleted;
+}
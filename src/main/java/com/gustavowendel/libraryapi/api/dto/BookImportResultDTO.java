@@ -0,0 +1,25 @@
+package com.gustavowendel.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookImportResultDTO {
+
+    private long accepted;
+
+    private long duplicated;
+
+    private long invalid;
+
+    @Builder.Default
+    private List<String> errors = new ArrayList<>();
+}
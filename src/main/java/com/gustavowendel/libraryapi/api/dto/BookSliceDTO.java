@@ -0,0 +1,23 @@
+package com.gustavowendel.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookSliceDTO {
+
+    private List<BookDTO> content;
+
+    private int size;
+
+    private boolean hasNext;
+
+    private String next;
+}
@@ -0,0 +1,22 @@
+package com.gustavowendel.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerLoanDTO {
+
+    private Long id;
+    private LocalDate loanDate;
+    private boolean returned;
+    private String isbn;
+    private String title;
+    private String author;
+}
@@ -4,6 +4,7 @@ import com.gustavowendel.libraryapi.exception.BusinessException;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.server.ResponseStatusException;
 
+import jakarta.validation.ConstraintViolationException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -16,10 +17,20 @@ public class ApiErros {
         bindingResult.getAllErrors().forEach(error -> this.errors.add(error.getDefaultMessage()));
     }
 
+    public ApiErros(ConstraintViolationException ex) {
+        this.errors = new ArrayList<>();
+        ex.getConstraintViolations().forEach(violation ->
+                this.errors.add(violation.getPropertyPath() + ": " + violation.getMessage()));
+    }
+
     public ApiErros(BusinessException ex) {
         this.errors = Collections.singletonList(ex.getMessage());
     }
 
+    public ApiErros(String error) {
+        this.errors = Collections.singletonList(error);
+    }
+
     public ApiErros(ResponseStatusException ex) {
         this.errors = Collections.singletonList(ex.getReason());
     }
@@ -0,0 +1,62 @@
+package com.gustavowendel.libraryapi.api.format;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+
+public enum BookFormat {
+
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson") {
+        @Override
+        public BookWriter writer(OutputStream out, ObjectMapper objectMapper) {
+            return new NdjsonBookWriter(out, objectMapper);
+        }
+
+        @Override
+        public BookReader reader(InputStream in, ObjectMapper objectMapper) {
+            return new NdjsonBookReader(in, objectMapper, MAX_RECORD_LENGTH);
+        }
+    },
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv") {
+        @Override
+        public BookWriter writer(OutputStream out, ObjectMapper objectMapper) {
+            return new CsvBookWriter(out);
+        }
+
+        @Override
+        public BookReader reader(InputStream in, ObjectMapper objectMapper) throws IOException {
+            return new CsvBookReader(in, MAX_RECORD_LENGTH);
+        }
+    };
+
+    // Longer records are rejected and skipped instead of being buffered whole.
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    BookFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public abstract BookWriter writer(OutputStream out, ObjectMapper objectMapper);
+
+    public abstract BookReader reader(InputStream in, ObjectMapper objectMapper) throws IOException;
+
+    public static BookFormat of(String format) {
+        return valueOf(format.toUpperCase(Locale.ROOT));
+    }
+}
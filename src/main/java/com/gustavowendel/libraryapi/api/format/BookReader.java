@@ -0,0 +1,16 @@
+package com.gustavowendel.libraryapi.api.format;
+
+import com.gustavowendel.libraryapi.api.dto.BookDTO;
+
+import java.io.IOException;
+
+public interface BookReader {
+
+    /**
+     * Returns the next record, or null at the end of the input. A malformed record is reported
+     * with an {@link InvalidRecordException} and the reader moves on to the next one.
+     */
+    BookDTO read() throws IOException;
+
+    long getRecordNumber();
+}
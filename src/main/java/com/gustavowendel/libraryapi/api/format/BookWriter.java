@@ -0,0 +1,11 @@
+package com.gustavowendel.libraryapi.api.format;
+
+import com.gustavowendel.libraryapi.api.dto.BookDTO;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+public interface BookWriter extends Flushable {
+
+    void write(BookDTO book) throws IOException;
+}
@@ -0,0 +1,149 @@
+package com.gustavowendel.libraryapi.api.format;
+
+import com.gustavowendel.libraryapi.api.dto.BookDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * RFC 4180 reader: fields may be quoted, quoted fields may hold commas, line breaks and
+ * doubled quotes. Columns are matched by the header, so their order doesn't matter. A record
+ * longer than the limit, such as one opening a quote it never closes, is rejected and the
+ * reader resumes after the line break where the limit was hit.
+ */
+class CsvBookReader implements BookReader {
+
+    private final BufferedReader in;
+    private final int title;
+    private final int author;
+    private final int isbn;
+    private final int maxRecordLength;
+    private long recordNumber;
+
+    CsvBookReader(InputStream in, int maxRecordLength) throws IOException {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.maxRecordLength = maxRecordLength;
+        List<String> header;
+        try {
+            header = nextRow();
+        } catch (InvalidRecordException ex) {
+            throw new IllegalArgumentException("Invalid csv header: " + ex.getMessage());
+        }
+        if (header == null) {
+            header = new ArrayList<>();
+        }
+        List<String> columns = new ArrayList<>(header.size());
+        header.forEach(column -> columns.add(column.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT)));
+        this.title = column(columns, "title");
+        this.author = column(columns, "author");
+        this.isbn = column(columns, "isbn");
+    }
+
+    @Override
+    public BookDTO read() throws IOException {
+        List<String> row;
+        do {
+            row = nextRow();
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.get(0).isEmpty());
+
+        recordNumber++;
+        return BookDTO.builder()
+                .title(field(row, title))
+                .author(field(row, author))
+                .isbn(field(row, isbn))
+                .build();
+    }
+
+    @Override
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    private static int column(List<String> columns, String name) {
+        int index = columns.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Missing csv column: " + name);
+        }
+        return index;
+    }
+
+    private static String field(List<String> row, int index) {
+        return index < row.size() ? row.get(index) : null;
+    }
+
+    private List<String> nextRow() throws IOException {
+        int c = in.read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        while (c >= 0) {
+            boolean lineBreak = !quoted && (c == '\n' || c == '\r');
+            if (!lineBreak && ++length > maxRecordLength) {
+                skipLine(c);
+                recordNumber++;
+                throw new InvalidRecordException("record longer than " + maxRecordLength + " characters");
+            }
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    int next = in.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        in.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    in.mark(1);
+                    if (in.read() != '\n') {
+                        in.reset();
+                    }
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+        if (quoted) {
+            recordNumber++;
+            throw new InvalidRecordException("unterminated quoted field");
+        }
+        row.add(field.toString());
+        return row;
+    }
+
+    private void skipLine(int c) throws IOException {
+        while (c >= 0 && c != '\n' && c != '\r') {
+            c = in.read();
+        }
+        if (c == '\r') {
+            in.mark(1);
+            if (in.read() != '\n') {
+                in.reset();
+            }
+        }
+    }
+}
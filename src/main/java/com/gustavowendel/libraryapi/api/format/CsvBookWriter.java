@@ -0,0 +1,60 @@
+package com.gustavowendel.libraryapi.api.format;
+
+import com.gustavowendel.libraryapi.api.dto.BookDTO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+class CsvBookWriter implements BookWriter {
+
+    static final String HEADER = "id,title,author,isbn";
+
+    private final Writer writer;
+
+    CsvBookWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            writer.write(HEADER);
+            writer.write("\r\n");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void write(BookDTO book) throws IOException {
+        if (book.getId() != null) {
+            writer.write(book.getId().toString());
+        }
+        writer.write(',');
+        writeField(book.getTitle());
+        writer.write(',');
+        writeField(book.getAuthor());
+        writer.write(',');
+        writeField(book.getIsbn());
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
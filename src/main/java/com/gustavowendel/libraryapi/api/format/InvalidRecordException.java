@@ -0,0 +1,8 @@
+package com.gustavowendel.libraryapi.api.format;
+
+public class InvalidRecordException extends RuntimeException {
+
+    public InvalidRecordException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,102 @@
+package com.gustavowendel.libraryapi.api.format;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.gustavowendel.libraryapi.api.dto.BookDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Splits lines itself rather than with readLine, which would hold a line of any length on the
+ * heap: a line longer than the limit is skipped up to its end and reported as invalid.
+ */
+class NdjsonBookReader implements BookReader {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader in;
+    private final ObjectReader reader;
+    private final int maxRecordLength;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder line = new StringBuilder();
+    private int position;
+    private int limit;
+    private long recordNumber;
+
+    NdjsonBookReader(InputStream in, ObjectMapper objectMapper, int maxRecordLength) {
+        this.in = new InputStreamReader(in, StandardCharsets.UTF_8);
+        this.reader = objectMapper.readerFor(BookDTO.class);
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    @Override
+    public BookDTO read() throws IOException {
+        String line;
+        do {
+            line = nextLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.trim().isEmpty());
+
+        recordNumber++;
+        BookDTO dto;
+        try {
+            dto = reader.readValue(line);
+        } catch (JsonProcessingException ex) {
+            throw new InvalidRecordException("malformed json: " + ex.getOriginalMessage());
+        }
+        // A json null would read as the end of input.
+        if (dto == null) {
+            throw new InvalidRecordException("not a json object");
+        }
+        return dto;
+    }
+
+    @Override
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    private String nextLine() throws IOException {
+        int c = nextChar();
+        if (c < 0) {
+            return null;
+        }
+        line.setLength(0);
+        boolean tooLong = false;
+        while (c >= 0 && c != '\n') {
+            if (line.length() < maxRecordLength) {
+                line.append((char) c);
+            } else if (c != '\r') {
+                tooLong = true;
+            }
+            c = nextChar();
+        }
+        if (tooLong) {
+            recordNumber++;
+            throw new InvalidRecordException("record longer than " + maxRecordLength + " characters");
+        }
+        if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+        return line.toString();
+    }
+
+    private int nextChar() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+}
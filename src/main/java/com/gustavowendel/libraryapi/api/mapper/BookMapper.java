@@ -0,0 +1,36 @@
+package com.gustavowendel.libraryapi.api.mapper;
+
+import com.gustavowendel.libraryapi.api.dto.BookDTO;
+import com.gustavowendel.libraryapi.model.entity.Book;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookMapper {
+
+    public Book toEntity(BookDTO dto) {
+        Book book = new Book();
+        book.setId(dto.getId());
+        book.setTitle(dto.getTitle());
+        book.setAuthor(dto.getAuthor());
+        book.setIsbn(dto.getIsbn());
+        return book;
+    }
+
+    public BookDTO toDto(Book book) {
+        BookDTO dto = new BookDTO();
+        dto.setId(book.getId());
+        dto.setTitle(book.getTitle());
+        dto.setAuthor(book.getAuthor());
+        dto.setIsbn(book.getIsbn());
+        return dto;
+    }
+
+    public List<BookDTO> toDtoList(List<Book> books) {
+        List<BookDTO> list = new ArrayList<>(books.size());
+        for (Book book : books) {
+            list.add(toDto(book));
+        }
+        return list;
+    }
+}
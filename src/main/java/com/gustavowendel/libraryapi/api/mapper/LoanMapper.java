@@ -0,0 +1,47 @@
+package com.gustavowendel.libraryapi.api.mapper;
+
+import com.gustavowendel.libraryapi.api.dto.LoanDTO;
+import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.Loan;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LoanMapper {
+
+    private final BookMapper bookMapper;
+
+    public LoanMapper(BookMapper bookMapper) {
+        this.bookMapper = bookMapper;
+    }
+
+    public Loan toEntity(LoanDTO dto, Book book, LocalDate loanDate) {
+        Loan loan = new Loan();
+        loan.setBook(book);
+        loan.setCustomer(dto.getCustomer());
+        loan.setCustomerEmail(dto.getEmail());
+        loan.setLoanDate(loanDate);
+        return loan;
+    }
+
+    public LoanDTO toDto(Loan loan) {
+        LoanDTO dto = new LoanDTO();
+        dto.setId(loan.getId());
+        dto.setCustomer(loan.getCustomer());
+        dto.setEmail(loan.getCustomerEmail());
+        if (loan.getBook() != null) {
+            dto.setIsbn(loan.getBook().getIsbn());
+            dto.setBook(bookMapper.toDto(loan.getBook()));
+        }
+        return dto;
+    }
+
+    public List<LoanDTO> toDtoList(List<Loan> loans) {
+        List<LoanDTO> dtos = new ArrayList<>(loans.size());
+        for (Loan loan : loans) {
+            dtos.add(toDto(loan));
+        }
+        return dtos;
+    }
+}
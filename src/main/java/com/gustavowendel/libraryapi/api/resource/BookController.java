@@ -1,76 +1,363 @@
 package com.gustavowendel.libraryapi.api.resource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gustavowendel.libraryapi.api.dto.BookBatchResultDTO;
 import com.gustavowendel.libraryapi.api.dto.BookDTO;
+import com.gustavowendel.libraryapi.api.dto.BookDeleteResultDTO;
+import com.gustavowendel.libraryapi.api.dto.BookImportResultDTO;
+import com.gustavowendel.libraryapi.api.dto.BookSliceDTO;
+import com.gustavowendel.libraryapi.api.format.BookFormat;
+import com.gustavowendel.libraryapi.api.format.BookReader;
+import com.gustavowendel.libraryapi.api.format.BookWriter;
+import com.gustavowendel.libraryapi.api.format.InvalidRecordException;
+import com.gustavowendel.libraryapi.api.mapper.BookMapper;
 import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.repository.BookKeyset;
+import com.gustavowendel.libraryapi.model.entity.repository.BookVersion;
 import com.gustavowendel.libraryapi.service.BookService;
-import org.modelmapper.ModelMapper;
+import com.gustavowendel.libraryapi.service.CountMode;
+import org.springframework.context.annotation.Profile;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import javax.validation.Valid;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/books")
+@Validated
 public class BookController {
 
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final String BOOK_MODIFIED = "Book was modified since it was read";
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RETURN_MINIMAL = "return=minimal";
+
     private final BookService service;
-    private final ModelMapper mapper;
+    private final BookMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final String defaultCountMode;
+    private final int importChunkSize;
 
-    public BookController(BookService service, ModelMapper mapper) {
+    public BookController(BookService service, BookMapper mapper, ObjectMapper objectMapper, Validator validator,
+                          @Value("${library.books.count-mode:exact}") String defaultCountMode,
+                          @Value("${library.books.import-chunk-size:1000}") int importChunkSize) {
         this.service = service;
         this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.defaultCountMode = defaultCountMode;
+        this.importChunkSize = importChunkSize;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public BookDTO create(@RequestBody @Valid BookDTO dto) {
-        Book entity = mapper.map(dto, Book.class);
+        Book entity = mapper.toEntity(dto);
         entity = service.save(entity);
-        return mapper.map(entity, BookDTO.class);
+        return mapper.toDto(entity);
+    }
+
+    @PostMapping("batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public BookBatchResultDTO createBatch(@RequestBody List<@Valid BookDTO> dtos) {
+        List<Book> books = new ArrayList<>(dtos.size());
+        dtos.forEach(dto -> books.add(mapper.toEntity(dto)));
+
+        Map<String, Book> saved = new HashMap<>();
+        service.saveAll(books).forEach(book -> saved.put(book.getIsbn(), book));
+
+        List<BookDTO> created = new ArrayList<>(saved.size());
+        List<String> duplicated = new ArrayList<>();
+        for (BookDTO dto : dtos) {
+            Book book = saved.remove(dto.getIsbn());
+            if (book != null) {
+                created.add(mapper.toDto(book));
+            } else {
+                duplicated.add(dto.getIsbn());
+            }
+        }
+        return new BookBatchResultDTO(created, duplicated);
     }
 
+    /*
+     * Clients poll book details, so a conditional GET is checked against the cached version
+     * first and answered with 304 without loading the book.
+     */
     @GetMapping("{id}")
-     public BookDTO get(@PathVariable Long id){
+     public ResponseEntity<BookDTO> get(@PathVariable Long id, WebRequest request){
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            BookVersion version = service.getVersion(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+            if (request.checkNotModified(etag(version.getVersion()), lastModified(version.getLastModified()))) {
+                return null;
+            }
+        }
         return service
                 .getById(id)
-                .map(book -> mapper.map(book, BookDTO.class))
+                .map(book -> withVersion(ResponseEntity.ok(), book).body(mapper.toDto(book)))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     @DeleteMapping("{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id){
-        Book book = service.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-        service.delete(book);
+        if (!service.deleteById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // Ids go in the query string or, for lists too long for a URL, as a JSON array in the body.
+    @DeleteMapping
+    public BookDeleteResultDTO deleteAll(@RequestParam(name = "ids", required = false) Set<Long> ids,
+                                         @RequestBody(required = false) Set<Long> body) {
+        Set<Long> requested = new HashSet<>();
+        if (ids != null) {
+            requested.addAll(ids);
+        }
+        if (body != null) {
+            requested.addAll(body);
+        }
+        if (requested.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No book ids to delete");
+        }
+        return new BookDeleteResultDTO(requested.size(), service.deleteAllById(requested));
     }
 
     @PutMapping("{id}")
-    public BookDTO uptade(@PathVariable Long id, @RequestBody @Valid BookDTO dto) {
+    public ResponseEntity<BookDTO> uptade(@PathVariable Long id, @RequestBody @Valid BookDTO dto,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @RequestHeader(value = PREFER, required = false) String prefer) {
+        if (prefer != null && prefer.contains(RETURN_MINIMAL) && (ifMatch == null || singleVersion(ifMatch) != null)) {
+            return updateMinimal(id, dto, ifMatch);
+        }
         return service.getById(id).map(book -> {
+            if (ifMatch != null && !matches(ifMatch, etag(book.getVersion()))) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, BOOK_MODIFIED);
+            }
 
             book.setAuthor(dto.getAuthor());
             book.setTitle(dto.getTitle());
-            service.update(book);
+            Book updated = service.update(book);
 
-            return mapper.map(book, BookDTO.class);
+            return withVersion(ResponseEntity.ok(), updated).body(mapper.toDto(updated));
         }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     @GetMapping
-    public Page<BookDTO> find(BookDTO dto, Pageable pageRequest) {
-        Book filter = mapper.map(dto, Book.class);
-        Page<Book> result = service.find(filter, pageRequest);
-        List<BookDTO> list = result.getContent()
-                .stream()
-                .map(entity -> mapper.map(entity, BookDTO.class))
-                .collect(Collectors.toList());
+    public Slice<BookDTO> find(BookDTO dto, Pageable pageRequest, @RequestParam(required = false) String count) {
+        Book filter = mapper.toEntity(dto);
+        CountMode countMode = countMode(count == null ? defaultCountMode : count);
+        if (countMode == CountMode.NONE) {
+            Slice<Book> result = service.findWithoutCount(filter, pageRequest);
+            return new SliceImpl<>(mapper.toDtoList(result.getContent()), pageRequest, result.hasNext());
+        }
+        Page<Book> result = countMode == CountMode.ESTIMATED
+                ? service.findWithEstimatedCount(filter, pageRequest)
+                : service.find(filter, pageRequest);
+        List<BookDTO> list = mapper.toDtoList(result.getContent());
         return new PageImpl<>(list, pageRequest, result.getTotalElements());
     }
 
+    @GetMapping(params = "after")
+    public BookSliceDTO seek(BookDTO dto, @RequestParam String after, Pageable pageRequest) {
+        BookKeyset keyset;
+        try {
+            keyset = after.isEmpty() ? BookKeyset.first(pageRequest.getSort()) : BookKeyset.decode(after);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+
+        Slice<Book> result = service.findAfter(mapper.toEntity(dto), keyset, pageRequest.getPageSize());
+        List<Book> content = result.getContent();
+        String next = result.hasNext() ? keyset.after(content.get(content.size() - 1)).encode() : null;
+        return new BookSliceDTO(mapper.toDtoList(content), result.getSize(), result.hasNext(), next);
+    }
+
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        BookFormat bookFormat = bookFormat(format);
+        StreamingResponseBody body = out -> {
+            BookWriter writer = bookFormat.writer(out, objectMapper);
+            service.export(book -> {
+                try {
+                    writer.write(mapper.toDto(book));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(bookFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=books." + bookFormat.getExtension())
+                .body(body);
+    }
+
+    /*
+     * The body is read one record at a time and handed to the service in chunks, each one in
+     * its own transaction. The next chunk is only read after the previous one is stored, so
+     * a fast client is held back by the request stream instead of filling the heap.
+     */
+    @PostMapping("import")
+    public BookImportResultDTO importBooks(@RequestParam(defaultValue = "ndjson") String format,
+                                           InputStream body) throws IOException {
+        BookReader reader;
+        try {
+            reader = bookFormat(format).reader(body, objectMapper);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+
+        BookImportResultDTO result = new BookImportResultDTO();
+        List<Book> chunk = new ArrayList<>(importChunkSize);
+        while (true) {
+            BookDTO dto;
+            try {
+                dto = reader.read();
+            } catch (InvalidRecordException ex) {
+                reject(result, reader.getRecordNumber(), ex.getMessage());
+                continue;
+            }
+            if (dto == null) {
+                break;
+            }
+
+            Set<ConstraintViolation<BookDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<BookDTO> violation = violations.iterator().next();
+                reject(result, reader.getRecordNumber(), violation.getPropertyPath() + ": " + violation.getMessage());
+                continue;
+            }
+
+            chunk.add(mapper.toEntity(dto));
+            if (chunk.size() == importChunkSize) {
+                importChunk(chunk, result);
+                chunk = new ArrayList<>(importChunkSize);
+            }
+        }
+        importChunk(chunk, result);
+        return result;
+    }
+
+    private void importChunk(List<Book> chunk, BookImportResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        int saved = service.saveAll(chunk).size();
+        result.setAccepted(result.getAccepted() + saved);
+        result.setDuplicated(result.getDuplicated() + chunk.size() - saved);
+    }
+
+    private void reject(BookImportResultDTO result, long recordNumber, String error) {
+        result.setInvalid(result.getInvalid() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add("record " + recordNumber + ": " + error);
+        }
+    }
+
+    private BookFormat bookFormat(String format) {
+        try {
+            return BookFormat.of(format);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid format: " + format);
+        }
+    }
+
+    /*
+     * "Prefer: return=minimal" skips reading the book: one update statement, checked against
+     * the If-Match version when there is one, and a 204 without body. Only when nothing was
+     * updated is the version looked up to tell 404 from 412.
+     */
+    private ResponseEntity<BookDTO> updateMinimal(Long id, BookDTO dto, String ifMatch) {
+        Long expectedVersion = ifMatch == null ? null : singleVersion(ifMatch);
+        if (!service.updateById(id, dto.getTitle(), dto.getAuthor(), expectedVersion)) {
+            if (service.getVersion(id).isPresent()) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, BOOK_MODIFIED);
+            }
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        ResponseEntity.HeadersBuilder<?> response = ResponseEntity.noContent().header(PREFERENCE_APPLIED, RETURN_MINIMAL);
+        if (expectedVersion != null) {
+            response.eTag(etag(expectedVersion + 1));
+        }
+        return response.build();
+    }
+
+    // The version in an If-Match holding a single strong tag, null for anything else.
+    private Long singleVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return null;
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private ResponseEntity.BodyBuilder withVersion(ResponseEntity.BodyBuilder response, Book book) {
+        if (book.getVersion() != null) {
+            response.eTag(etag(book.getVersion()));
+        }
+        if (book.getLastModified() != null) {
+            response.lastModified(book.getLastModified());
+        }
+        return response;
+    }
+
+    private String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private long lastModified(Instant lastModified) {
+        return lastModified == null ? -1 : lastModified.toEpochMilli();
+    }
+
+    // If-Match uses the strong comparison, so weak tags never match.
+    private boolean matches(String ifMatch, String etag) {
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CountMode countMode(String count) {
+        try {
+            return CountMode.valueOf(count.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid count mode: " + count);
+        }
+    }
+
 }
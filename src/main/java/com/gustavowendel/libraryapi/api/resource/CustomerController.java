@@ -0,0 +1,39 @@
+package com.gustavowendel.libraryapi.api.resource;
+
+import com.gustavowendel.libraryapi.api.dto.CustomerLoanDTO;
+import com.gustavowendel.libraryapi.model.entity.repository.CustomerLoan;
+import com.gustavowendel.libraryapi.service.LoanService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("api/customers")
+public class CustomerController {
+
+    private final LoanService loanService;
+
+    public CustomerController(LoanService loanService) {
+        this.loanService = loanService;
+    }
+
+    @GetMapping("{customer}/loans")
+    public Page<CustomerLoanDTO> findLoans(@PathVariable String customer,
+                                           @RequestParam(defaultValue = "false") boolean active,
+                                           Pageable pageRequest) {
+        return loanService.getCustomerLoans(customer, active, pageRequest).map(this::toDto);
+    }
+
+    private CustomerLoanDTO toDto(CustomerLoan loan) {
+        return CustomerLoanDTO.builder()
+                .id(loan.getId())
+                .loanDate(loan.getLoanDate())
+                .returned(Boolean.TRUE.equals(loan.getReturned()))
+                .isbn(loan.getIsbn())
+                .title(loan.getTitle())
+                .author(loan.getAuthor())
+                .build();
+    }
+}
@@ -1,26 +1,42 @@
 package com.gustavowendel.libraryapi.api.resource;
 
+import com.gustavowendel.libraryapi.api.dto.LoanBatchItemDTO;
 import com.gustavowendel.libraryapi.api.dto.LoanDTO;
+import com.gustavowendel.libraryapi.api.dto.LoanFilterDTO;
+import com.gustavowendel.libraryapi.api.dto.ReturnedLoanDTO;
+import com.gustavowendel.libraryapi.api.mapper.LoanMapper;
+import com.gustavowendel.libraryapi.exception.IntegrityViolations;
 import com.gustavowendel.libraryapi.model.entity.Book;
 import com.gustavowendel.libraryapi.model.entity.Loan;
 import com.gustavowendel.libraryapi.service.BookService;
 import com.gustavowendel.libraryapi.service.LoanService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import jakarta.validation.Valid;
 import java.time.LocalDate;
+import java.util.*;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("api/loans")
 public class LoanController {
 
+    private static final String BOOK_NOT_FOUND = "Book not found for passed isbn";
+
     private final LoanService loanService;
     private final BookService bookService;
+    private final LoanMapper mapper;
 
-    public LoanController(LoanService loanService, BookService bookService) {
+    public LoanController(LoanService loanService, BookService bookService, LoanMapper mapper) {
         this.loanService = loanService;
         this.bookService = bookService;
+        this.mapper = mapper;
     }
 
     @PostMapping
@@ -29,14 +45,67 @@ public class LoanController {
         Book book = bookService
                 .getBookByIsbn(dto.getIsbn())
                 .orElseThrow(
-                        () -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Book not found for passed isbn"));
-        Loan entity = Loan
-                .builder()
-                .book(book)
-                .customer(dto.getCustomer())
-                .loanDate(LocalDate.now()).build();
+                        () -> new ResponseStatusException(HttpStatus.BAD_REQUEST, BOOK_NOT_FOUND));
+        Loan entity = mapper.toEntity(dto, book, LocalDate.now());
 
         entity = loanService.save(entity);
         return entity.getId();
     }
+
+    @PostMapping("batch")
+    public List<LoanBatchItemDTO> createBatch(@RequestBody List<LoanDTO> dtos) {
+        Set<String> isbns = new HashSet<>();
+        dtos.forEach(dto -> isbns.add(dto.getIsbn()));
+        Map<String, Book> books = new HashMap<>();
+        bookService.getBooksByIsbn(isbns).forEach(book -> books.put(book.getIsbn(), book));
+
+        LocalDate today = LocalDate.now();
+        List<Loan> loans = new ArrayList<>(dtos.size());
+        for (LoanDTO dto : dtos) {
+            Book book = books.get(dto.getIsbn());
+            loans.add(book == null ? null : mapper.toEntity(dto, book, today));
+        }
+
+        Set<Loan> saved = Collections.newSetFromMap(new IdentityHashMap<>());
+        saved.addAll(loanService.saveAll(withoutNulls(loans)));
+
+        List<LoanBatchItemDTO> result = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            Loan loan = loans.get(i);
+            LoanBatchItemDTO item = LoanBatchItemDTO.builder().isbn(dtos.get(i).getIsbn()).build();
+            if (loan == null) {
+                item.setError(BOOK_NOT_FOUND);
+            } else if (saved.contains(loan)) {
+                item.setId(loan.getId());
+            } else {
+                item.setError(IntegrityViolations.BOOK_ALREADY_LOANED);
+            }
+            result.add(item);
+        }
+        return result;
+    }
+
+    @PatchMapping("{id}")
+    public void returnBook(@PathVariable Long id, @RequestBody @Valid ReturnedLoanDTO dto) {
+        Loan loan = loanService.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        loan.setReturned(dto.getReturned());
+        loanService.update(loan);
+    }
+
+    @GetMapping
+    public Page<LoanDTO> find(LoanFilterDTO dto, Pageable pageRequest) {
+        Page<Loan> result = loanService.find(dto.getIsbn(), dto.getCustomer(), pageRequest);
+        List<LoanDTO> loans = mapper.toDtoList(result.getContent());
+        return new PageImpl<>(loans, pageRequest, result.getTotalElements());
+    }
+
+    private List<Loan> withoutNulls(List<Loan> loans) {
+        List<Loan> list = new ArrayList<>(loans.size());
+        for (Loan loan : loans) {
+            if (loan != null) {
+                list.add(loan);
+            }
+        }
+        return list;
+    }
 }
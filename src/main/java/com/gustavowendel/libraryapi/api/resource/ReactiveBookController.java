@@ -0,0 +1,72 @@
+package com.gustavowendel.libraryapi.api.resource;
+
+import com.gustavowendel.libraryapi.api.dto.BookDTO;
+import com.gustavowendel.libraryapi.api.mapper.BookMapper;
+import com.gustavowendel.libraryapi.service.ReactiveBookService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import jakarta.validation.Valid;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/books")
+public class ReactiveBookController {
+
+    private final ReactiveBookService service;
+    private final BookMapper mapper;
+
+    public ReactiveBookController(ReactiveBookService service, BookMapper mapper) {
+        this.service = service;
+        this.mapper = mapper;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BookDTO> create(@RequestBody @Valid BookDTO dto) {
+        return service.save(mapper.toEntity(dto)).map(mapper::toDto);
+    }
+
+    @GetMapping("{id}")
+    public Mono<BookDTO> get(@PathVariable Long id) {
+        return service.getById(id)
+                .map(mapper::toDto)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    @DeleteMapping("{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> delete(@PathVariable Long id) {
+        return service.getById(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(service::delete);
+    }
+
+    @PutMapping("{id}")
+    public Mono<BookDTO> update(@PathVariable Long id, @RequestBody @Valid BookDTO dto) {
+        return service.getById(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(book -> {
+                    book.setAuthor(dto.getAuthor());
+                    book.setTitle(dto.getTitle());
+                    return service.update(book);
+                })
+                .map(mapper::toDto);
+    }
+
+    /* WebFlux has no Pageable argument resolver, so page and size are plain parameters. */
+    @GetMapping
+    public Mono<Page<BookDTO>> find(BookDTO dto,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        return service.find(mapper.toEntity(dto), pageRequest)
+                .map(result -> new PageImpl<>(mapper.toDtoList(result.getContent()), pageRequest, result.getTotalElements()));
+    }
+}
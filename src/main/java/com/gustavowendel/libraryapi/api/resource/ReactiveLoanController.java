@@ -0,0 +1,67 @@
+package com.gustavowendel.libraryapi.api.resource;
+
+import com.gustavowendel.libraryapi.api.dto.LoanDTO;
+import com.gustavowendel.libraryapi.api.dto.LoanFilterDTO;
+import com.gustavowendel.libraryapi.api.dto.ReturnedLoanDTO;
+import com.gustavowendel.libraryapi.api.mapper.LoanMapper;
+import com.gustavowendel.libraryapi.model.entity.Loan;
+import com.gustavowendel.libraryapi.service.ReactiveBookService;
+import com.gustavowendel.libraryapi.service.ReactiveLoanService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import jakarta.validation.Valid;
+import java.time.LocalDate;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("api/loans")
+public class ReactiveLoanController {
+
+    private static final String BOOK_NOT_FOUND = "Book not found for passed isbn";
+
+    private final ReactiveLoanService loanService;
+    private final ReactiveBookService bookService;
+    private final LoanMapper mapper;
+
+    public ReactiveLoanController(ReactiveLoanService loanService, ReactiveBookService bookService, LoanMapper mapper) {
+        this.loanService = loanService;
+        this.bookService = bookService;
+        this.mapper = mapper;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Long> create(@RequestBody LoanDTO dto) {
+        return bookService.getBookByIsbn(dto.getIsbn())
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, BOOK_NOT_FOUND)))
+                .flatMap(book -> loanService.save(mapper.toEntity(dto, book, LocalDate.now())))
+                .map(Loan::getId);
+    }
+
+    @PatchMapping("{id}")
+    public Mono<Void> returnBook(@PathVariable Long id, @RequestBody @Valid ReturnedLoanDTO dto) {
+        return loanService.getById(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(loan -> {
+                    loan.setReturned(dto.getReturned());
+                    return loanService.update(loan);
+                })
+                .then();
+    }
+
+    @GetMapping
+    public Mono<Page<LoanDTO>> find(LoanFilterDTO dto,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        return loanService.find(dto.getIsbn(), dto.getCustomer(), pageRequest)
+                .map(result -> new PageImpl<>(mapper.toDtoList(result.getContent()), pageRequest, result.getTotalElements()));
+    }
+}
@@ -0,0 +1,43 @@
+package com.gustavowendel.libraryapi.exception;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.Loan;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+public final class IntegrityViolations {
+
+    public static final String DUPLICATED_ISBN = "Isbn já cadastrado";
+    public static final String BOOK_ALREADY_LOANED = "Book already loaned";
+    public static final String BOOK_HAS_LOANS = "Book has loans";
+
+    private IntegrityViolations() {
+    }
+
+    public static BusinessException translate(DataIntegrityViolationException ex) {
+        String constraint = constraintName(ex).toLowerCase(Locale.ROOT);
+        if (constraint.contains(Book.UNIQUE_ISBN)) {
+            return new BusinessException(DUPLICATED_ISBN);
+        }
+        if (constraint.contains(Loan.UNIQUE_ACTIVE_BOOK)) {
+            return new BusinessException(BOOK_ALREADY_LOANED);
+        }
+        if (constraint.contains(Loan.BOOK_FOREIGN_KEY)) {
+            return new BusinessException(BOOK_HAS_LOANS);
+        }
+        return new BusinessException("Data integrity violation");
+    }
+
+    private static String constraintName(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException
+                    && ((ConstraintViolationException) cause).getConstraintName() != null) {
+                return ((ConstraintViolationException) cause).getConstraintName();
+            }
+        }
+        String message = ex.getMostSpecificCause().getMessage();
+        return message == null ? "" : message;
+    }
+}
@@ -4,19 +4,38 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
-import javax.persistence.*;
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Book.CACHE_REGION)
+@NaturalIdCache(region = Book.ISBN_CACHE_REGION)
+@Table(
+        indexes = {
+                @Index(name = "idx_book_title_id", columnList = "title, id"),
+                @Index(name = "idx_book_author_id", columnList = "author, id")},
+        uniqueConstraints = @UniqueConstraint(name = Book.UNIQUE_ISBN, columnNames = "isbn"))
 public class Book {
+
+    public static final String UNIQUE_ISBN = "uk_book_isbn";
+    public static final String CACHE_REGION = "book";
+    public static final String ISBN_CACHE_REGION = "book-isbn";
+
     @Id
     @Column
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_sequence")
+    @SequenceGenerator(name = "book_sequence", sequenceName = "book_sequence", allocationSize = 50)
     private Long id;
 
     @Column
@@ -25,6 +44,22 @@ public class Book {
     @Column
     private String author;
 
+    // Never changes once the book is saved, so the isbn -> id mapping can be cached.
+    @NaturalId
     @Column
     private String isbn;
+
+    // Bumped on every update: merges of a stale copy fail, and it is the book's ETag.
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "last_modified")
+    private Instant lastModified;
+
+    @PrePersist
+    @PreUpdate
+    void updateLastModified() {
+        this.lastModified = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
 }
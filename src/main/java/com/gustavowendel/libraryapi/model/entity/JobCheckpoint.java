@@ -0,0 +1,32 @@
+package com.gustavowendel.libraryapi.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import java.time.LocalDate;
+
+/*
+ * High-water mark of a job that walks the loans ordered by (loan_date, id): the last loan it
+ * has handed off, so the next run starts right after it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class JobCheckpoint {
+
+    @Id
+    private String name;
+
+    @Column(name = "last_loan_date")
+    private LocalDate lastLoanDate;
+
+    @Column(name = "last_loan_id")
+    private Long lastLoanId;
+}
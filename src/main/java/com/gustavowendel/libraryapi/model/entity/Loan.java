@@ -3,9 +3,11 @@ package com.gustavowendel.libraryapi.model.entity;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
-import javax.persistence.*;
+import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Data
@@ -13,12 +15,22 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table
+@Table(
+        indexes = {
+                @Index(name = "idx_loan_date_id", columnList = "loan_date, id"),
+                @Index(name = "idx_loan_customer_date_id", columnList = "customer, loan_date, id"),
+                @Index(name = "idx_loan_book_id", columnList = "book_id")
+        },
+        uniqueConstraints = @UniqueConstraint(name = Loan.UNIQUE_ACTIVE_BOOK, columnNames = "active_book_id"))
 public class Loan {
 
+    public static final String UNIQUE_ACTIVE_BOOK = "uk_loan_active_book";
+    public static final String BOOK_FOREIGN_KEY = "fk_loan_book";
+
     @Id
     @Column
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_sequence")
+    @SequenceGenerator(name = "loan_sequence", sequenceName = "loan_sequence", allocationSize = 50)
     private Long id;
 
     @Column
@@ -27,10 +39,29 @@ public class Loan {
     @Column
     private String customer;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @Column(name = "customer_email")
+    private String customerEmail;
+
+    // Lazy so listing loans does not cost one select per book; queries that need it fetch-join it.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_id", foreignKey = @ForeignKey(name = BOOK_FOREIGN_KEY))
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Book book;
 
+    @Column(name = "loan_date")
     private LocalDate loanDate;
 
     private Boolean returned;
+
+    // Holds the book id while the loan is active and null once returned, so the unique
+    // constraint allows a single active loan per book and any number of returned ones.
+    @Column(name = "active_book_id")
+    private Long activeBookId;
+
+    @PrePersist
+    @PreUpdate
+    void updateActiveBookId() {
+        this.activeBookId = book == null || Boolean.TRUE.equals(returned) ? null : book.getId();
+    }
 }
@@ -0,0 +1,70 @@
+package com.gustavowendel.libraryapi.model.entity.repository;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BookKeyset {
+
+    public static final List<String> SORTABLE_PROPERTIES = Arrays.asList("id", "title", "author", "isbn");
+
+    private final String property;
+    private final Sort.Direction direction;
+    private final Long lastId;
+    private final String lastValue;
+
+    public static BookKeyset first(Sort sort) {
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc("id"));
+        if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+            throw new IllegalArgumentException("Can't seek on property " + order.getProperty());
+        }
+        return new BookKeyset(order.getProperty(), order.getDirection(), null, null);
+    }
+
+    public static BookKeyset decode(String token) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length < 3 || !SORTABLE_PROPERTIES.contains(parts[0]) || (parts.length == 3) != "id".equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+        String value = parts.length == 4 ? parts[3] : null;
+        return new BookKeyset(parts[0], Sort.Direction.fromString(parts[1]), Long.valueOf(parts[2]), value);
+    }
+
+    public BookKeyset after(Book book) {
+        switch (property) {
+            case "title":
+                return new BookKeyset(property, direction, book.getId(), book.getTitle());
+            case "author":
+                return new BookKeyset(property, direction, book.getId(), book.getAuthor());
+            case "isbn":
+                return new BookKeyset(property, direction, book.getId(), book.getIsbn());
+            default:
+                return new BookKeyset(property, direction, book.getId(), null);
+        }
+    }
+
+    public String encode() {
+        String raw = property + "|" + direction + "|" + lastId + (lastValue == null ? "" : "|" + lastValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isFirst() {
+        return lastId == null;
+    }
+
+    public boolean isById() {
+        return "id".equals(property);
+    }
+
+    public Sort toSort() {
+        return isById() ? Sort.by(direction, "id") : Sort.by(direction, property, "id");
+    }
+}
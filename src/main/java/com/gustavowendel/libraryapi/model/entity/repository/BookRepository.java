@@ -2,14 +2,26 @@ package com.gustavowendel.libraryapi.model.entity.repository;
 
 import com.gustavowendel.libraryapi.model.entity.Book;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
 
     boolean existsByIsbn(String isbn);
 
-    Optional<Book> findByIsbn(String isbn);
-}
\ No newline at end of file
+    Optional<BookVersion> findVersionById(Long id);
+
+    List<Book> findByIsbnIn(Collection<String> isbns);
+
+    @Query("select b.isbn from Book b where b.isbn in :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    @Query("select b.id from Book b where b.id in :ids and not exists (select l.id from Loan l where l.book = b)")
+    List<Long> findIdsWithoutLoans(@Param("ids") Collection<Long> ids);
+}
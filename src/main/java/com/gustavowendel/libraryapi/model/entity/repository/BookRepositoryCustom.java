@@ -0,0 +1,35 @@
+package com.gustavowendel.libraryapi.model.entity.repository;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface BookRepositoryCustom {
+
+    Optional<Book> findByIsbn(String isbn);
+
+    List<Book> findAfter(Book filter, BookKeyset keyset, int limit);
+
+    // Like findAfter without a filter, bypassing the second-level cache.
+    List<Book> findBatchAfter(BookKeyset keyset, int limit);
+
+    List<Book> findContaining(Book filter, Pageable pageable, int limit);
+
+    long countContaining(Book filter);
+
+    void forEachBook(Consumer<Book> action);
+
+    List<Long> updateAll(List<BookUpdate> updates);
+
+    int deleteBook(Long id);
+
+    int deleteBooks(Collection<Long> ids);
+
+    // A null version updates whatever version the row has.
+    int updateBook(Long id, String title, String author, Long version, Instant lastModified);
+}
@@ -0,0 +1,311 @@
+package com.gustavowendel.libraryapi.model.entity.repository;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class BookRepositoryImpl implements BookRepositoryCustom {
+
+    private static final EscapeCharacter ESCAPE = EscapeCharacter.DEFAULT;
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final String UPDATE_VERSIONED = "update book set title = ?, author = ?, version = ?, last_modified = ? " +
+            "where id = ? and version = ?";
+    private static final String UPDATE_BY_ID = "update book set title = ?, author = ?, version = version + 1, " +
+            "last_modified = ? where id = ?";
+    private static final String DELETE_BY_ID = "delete from book where id = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /*
+     * Resolved through the natural id, so a cached isbn and book need no SQL. Outside a
+     * transaction a short-lived session is used; it only takes a connection on a cache miss.
+     */
+    @Override
+    public Optional<Book> findByIsbn(String isbn) {
+        if (isbn == null) {
+            return Optional.empty();
+        }
+        EntityManagerFactory factory = entityManager.getEntityManagerFactory();
+        EntityManager transactional = EntityManagerFactoryUtils.getTransactionalEntityManager(factory);
+        if (transactional != null) {
+            return transactional.unwrap(Session.class).bySimpleNaturalId(Book.class).loadOptional(isbn);
+        }
+        try (Session session = factory.unwrap(SessionFactory.class).openSession()) {
+            return session.bySimpleNaturalId(Book.class).loadOptional(isbn);
+        }
+    }
+
+    @Override
+    public List<Book> findAfter(Book filter, BookKeyset keyset, int limit) {
+        return findAfter(filter, keyset, limit, CacheMode.NORMAL);
+    }
+
+    // For walks over the whole table, which would otherwise push the hot books out of the cache.
+    @Override
+    public List<Book> findBatchAfter(BookKeyset keyset, int limit) {
+        return findAfter(new Book(), keyset, limit, CacheMode.IGNORE);
+    }
+
+    private List<Book> findAfter(Book filter, BookKeyset keyset, int limit, CacheMode cacheMode) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> book = query.from(Book.class);
+
+        List<Predicate> predicates = containing(cb, book, filter);
+        if (!keyset.isFirst()) {
+            predicates.add(after(cb, book, keyset));
+        }
+
+        boolean ascending = keyset.getDirection() == Sort.Direction.ASC;
+        List<Order> orders = new ArrayList<>();
+        if (!keyset.isById()) {
+            orders.add(ascending ? cb.asc(book.get(keyset.getProperty())) : cb.desc(book.get(keyset.getProperty())));
+        }
+        orders.add(ascending ? cb.asc(book.get("id")) : cb.desc(book.get("id")));
+
+        query.select(book).where(predicates.toArray(new Predicate[0])).orderBy(orders);
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_CACHE_MODE, cacheMode)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Book> findContaining(Book filter, Pageable pageable, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> book = query.from(Book.class);
+
+        query.select(book)
+                .where(containing(cb, book, filter).toArray(new Predicate[0]))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), book, cb));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long countContaining(Book filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> book = query.from(Book.class);
+
+        query.select(cb.count(book)).where(containing(cb, book, filter).toArray(new Predicate[0]));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /*
+     * Reads the table through a forward-only cursor. Each book is detached once the action is
+     * done with it, so the persistence context doesn't grow with the table. The second-level
+     * cache is bypassed for the session while it runs: the stream doesn't honour a cache mode
+     * set on the query, and the walk would push the hot books out of the cache.
+     */
+    @Override
+    public void forEachBook(Consumer<Book> action) {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        try (Stream<Book> books = entityManager.createQuery("select b from Book b order by b.id", Book.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            books.forEach(book -> {
+                action.accept(book);
+                entityManager.detach(book);
+            });
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+    }
+
+    /*
+     * All updates go out as one JDBC batch. A row is only written while it still has the version
+     * the update was based on; the ids of the rows that didn't match are returned.
+     */
+    @Override
+    public List<Long> updateAll(List<BookUpdate> updates) {
+        List<Long> conflicts = new ArrayList<>();
+        withStatement(UPDATE_VERSIONED, statement -> {
+            for (BookUpdate update : updates) {
+                Book book = update.getBook();
+                statement.setString(1, book.getTitle());
+                statement.setString(2, book.getAuthor());
+                statement.setLong(3, book.getVersion());
+                statement.setObject(4, book.getLastModified() == null ? null : book.getLastModified().atOffset(ZoneOffset.UTC));
+                statement.setLong(5, book.getId());
+                statement.setLong(6, update.getExpectedVersion());
+                statement.addBatch();
+            }
+            int[] counts = statement.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    conflicts.add(updates.get(i).getBook().getId());
+                }
+            }
+            return counts.length;
+        });
+        List<Long> ids = new ArrayList<>(updates.size());
+        updates.forEach(update -> ids.add(update.getBook().getId()));
+        evictCached(ids, false);
+        return conflicts;
+    }
+
+    @Override
+    public int deleteBook(Long id) {
+        return execute(DELETE_BY_ID, List.of(id), true, statement -> statement.setLong(1, id));
+    }
+
+    @Override
+    public int deleteBooks(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Long> values = new ArrayList<>(ids);
+        String sql = "delete from book where id in (" + String.join(", ", Collections.nCopies(values.size(), "?")) + ")";
+        return execute(sql, values, true, statement -> {
+            for (int i = 0; i < values.size(); i++) {
+                statement.setLong(i + 1, values.get(i));
+            }
+        });
+    }
+
+    @Override
+    public int updateBook(Long id, String title, String author, Long version, Instant lastModified) {
+        String sql = version == null ? UPDATE_BY_ID : UPDATE_BY_ID + " and version = ?";
+        return execute(sql, List.of(id), false, statement -> {
+            statement.setString(1, title);
+            statement.setString(2, author);
+            statement.setObject(3, lastModified == null ? null : lastModified.atOffset(ZoneOffset.UTC));
+            statement.setLong(4, id);
+            if (version != null) {
+                statement.setLong(5, version);
+            }
+        });
+    }
+
+    /*
+     * Bulk JPQL would make Hibernate drop the whole Book cache region on every statement, so
+     * these go through JDBC and evict only the books they touch.
+     */
+    private int execute(String sql, Collection<Long> ids, boolean deletes, StatementBinder binder) {
+        entityManager.flush();
+        int count = withStatement(sql, statement -> {
+            binder.bind(statement);
+            return statement.executeUpdate();
+        });
+        if (count > 0) {
+            evictCached(ids, deletes);
+        }
+        return count;
+    }
+
+    /*
+     * Prepared through the session rather than on the raw connection, so the statement inspector
+     * sees it and SQL errors are translated like Hibernate's own.
+     */
+    private int withStatement(String sql, StatementWork work) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        JdbcCoordinator jdbc = session.getJdbcCoordinator();
+        PreparedStatement statement = jdbc.getStatementPreparer().prepareStatement(sql);
+        try {
+            return work.execute(statement);
+        } catch (SQLException ex) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(ex, "could not execute statement", sql);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbc.afterStatementExecution();
+        }
+    }
+
+    /*
+     * Evicted right away and again once the transaction ends: a reader that loaded the old row
+     * before the commit may have put it back in between. Cached isbns are keyed by value, which
+     * a delete by id doesn't know, and Hibernate won't replace a cached isbn when a new book
+     * takes it over; deletes are rare enough to drop that region as a whole.
+     */
+    private void evictCached(Collection<Long> ids, boolean deletes) {
+        org.hibernate.Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(org.hibernate.Cache.class);
+        Runnable evict = () -> {
+            ids.forEach(id -> cache.evictEntityData(Book.class, id));
+            if (deletes) {
+                cache.evictNaturalIdData(Book.class);
+            }
+        };
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    private List<Predicate> containing(CriteriaBuilder cb, Root<Book> book, Book filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        addContaining(predicates, cb, book.get("title"), filter.getTitle());
+        addContaining(predicates, cb, book.get("author"), filter.getAuthor());
+        addContaining(predicates, cb, book.get("isbn"), filter.getIsbn());
+        return predicates;
+    }
+
+    private Predicate after(CriteriaBuilder cb, Root<Book> book, BookKeyset keyset) {
+        boolean ascending = keyset.getDirection() == Sort.Direction.ASC;
+        Path<Long> id = book.get("id");
+        Predicate afterId = ascending ? cb.greaterThan(id, keyset.getLastId()) : cb.lessThan(id, keyset.getLastId());
+        if (keyset.isById()) {
+            return afterId;
+        }
+        Path<String> value = book.get(keyset.getProperty());
+        Predicate afterValue = ascending
+                ? cb.greaterThan(value, keyset.getLastValue())
+                : cb.lessThan(value, keyset.getLastValue());
+        return cb.or(afterValue, cb.and(cb.equal(value, keyset.getLastValue()), afterId));
+    }
+
+    private void addContaining(List<Predicate> predicates, CriteriaBuilder cb, Path<String> path, String value) {
+        if (value != null) {
+            String pattern = "%" + ESCAPE.escape(value.toLowerCase(Locale.ROOT)) + "%";
+            predicates.add(cb.like(cb.lower(path), pattern, ESCAPE.getEscapeCharacter()));
+        }
+    }
+
+    private interface StatementBinder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    private interface StatementWork {
+        int execute(PreparedStatement statement) throws SQLException;
+    }
+}
@@ -0,0 +1,14 @@
+package com.gustavowendel.libraryapi.model.entity.repository;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import lombok.Value;
+
+@Value
+public class BookUpdate {
+
+    // Title, author, version and lastModified to write.
+    Book book;
+
+    // Version the row must still have for the update to apply.
+    Long expectedVersion;
+}
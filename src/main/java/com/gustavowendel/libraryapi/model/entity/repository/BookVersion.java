@@ -0,0 +1,20 @@
+package com.gustavowendel.libraryapi.model.entity.repository;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+public class BookVersion {
+
+    Long id;
+
+    Long version;
+
+    Instant lastModified;
+
+    public static BookVersion of(Book book) {
+        return new BookVersion(book.getId(), book.getVersion(), book.getLastModified());
+    }
+}
@@ -0,0 +1,18 @@
+package com.gustavowendel.libraryapi.model.entity.repository;
+
+import java.time.LocalDate;
+
+public interface CustomerLoan {
+
+    Long getId();
+
+    LocalDate getLoanDate();
+
+    Boolean getReturned();
+
+    String getIsbn();
+
+    String getTitle();
+
+    String getAuthor();
+}
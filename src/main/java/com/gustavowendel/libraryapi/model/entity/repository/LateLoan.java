@@ -0,0 +1,12 @@
+package com.gustavowendel.libraryapi.model.entity.repository;
+
+import java.time.LocalDate;
+
+public interface LateLoan {
+
+    Long getId();
+
+    LocalDate getLoanDate();
+
+    String getCustomerEmail();
+}
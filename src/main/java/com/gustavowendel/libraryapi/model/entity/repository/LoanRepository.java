@@ -2,10 +2,56 @@ package com.gustavowendel.libraryapi.model.entity.repository;
 
 import com.gustavowendel.libraryapi.model.entity.Book;
 import com.gustavowendel.libraryapi.model.entity.Loan;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
-    boolean existsByBookAndNotReturned(Book book);
+
+    // Both lookups go through active_book_id, which only holds active loans, so their cost
+    // doesn't grow with the loan history.
+    @Query(value = " select case when ( count(l.id) > 0 ) then true else false end " +
+            " from Loan l where l.activeBookId = :#{#book.id} ")
+    boolean existsByBookAndNotReturned(@Param("book") Book book);
+
+    @Query(value = " select l.activeBookId from Loan l where l.activeBookId in :bookIds ")
+    List<Long> findLoanedBookIds(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query(value = " select l from Loan l join fetch l.book b " +
+            " where ( :isbn is null or b.isbn = :isbn ) and ( :customer is null or l.customer = :customer ) ",
+            countQuery = " select count(l.id) from Loan l join l.book b " +
+                    " where ( :isbn is null or b.isbn = :isbn ) and ( :customer is null or l.customer = :customer ) ")
+    Page<Loan> findByBookIsbnAndCustomer(@Param("isbn") String isbn,
+                                         @Param("customer") String customer,
+                                         Pageable pageable);
+
+    @Query(value = " select l.id as id, l.loanDate as loanDate, l.returned as returned, " +
+            " b.isbn as isbn, b.title as title, b.author as author " +
+            " from Loan l join l.book b where l.customer = :customer order by l.loanDate desc, l.id desc ",
+            countQuery = " select count(l.id) from Loan l where l.customer = :customer ")
+    Page<CustomerLoan> findCustomerLoans(@Param("customer") String customer, Pageable pageable);
+
+    @Query(value = " select l.id as id, l.loanDate as loanDate, l.returned as returned, " +
+            " b.isbn as isbn, b.title as title, b.author as author " +
+            " from Loan l join l.book b where l.customer = :customer and l.activeBookId is not null " +
+            " order by l.loanDate desc, l.id desc ",
+            countQuery = " select count(l.id) from Loan l where l.customer = :customer and l.activeBookId is not null ")
+    Page<CustomerLoan> findActiveCustomerLoans(@Param("customer") String customer, Pageable pageable);
+
+    @Query(value = " select l.id as id, l.loanDate as loanDate, l.customerEmail as customerEmail from Loan l " +
+            " where l.activeBookId is not null and l.loanDate <= :loanedUntil " +
+            " and ( l.loanDate > :afterDate or ( l.loanDate = :afterDate and l.id > :afterId ) ) " +
+            " order by l.loanDate, l.id ")
+    List<LateLoan> findLateLoans(@Param("loanedUntil") LocalDate loanedUntil,
+                                 @Param("afterDate") LocalDate afterDate,
+                                 @Param("afterId") Long afterId,
+                                 Pageable pageable);
 }
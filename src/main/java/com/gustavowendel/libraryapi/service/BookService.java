@@ -1,22 +1,48 @@
 package com.gustavowendel.libraryapi.service;
 
 import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.repository.BookKeyset;
+import com.gustavowendel.libraryapi.model.entity.repository.BookVersion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface BookService {
     Book save(Book any);
 
     Optional<Book> getById(Long id);
 
+    Optional<BookVersion> getVersion(Long id);
+
     void delete(Book book);
 
+    boolean deleteById(Long id);
+
+    int deleteAllById(Collection<Long> ids);
+
     Book update(Book book);
 
+    boolean updateById(Long id, String title, String author, Long expectedVersion);
+
     Page<Book> find(Book filter, Pageable pageableRequest);
 
+    Slice<Book> findWithoutCount(Book filter, Pageable pageableRequest);
+
+    Page<Book> findWithEstimatedCount(Book filter, Pageable pageableRequest);
+
+    Slice<Book> findAfter(Book filter, BookKeyset keyset, int size);
+
     Optional<Book> getBookByIsbn(String isbn);
 
+    List<Book> saveAll(List<Book> books);
+
+    List<Book> getBooksByIsbn(Collection<String> isbns);
+
+    void export(Consumer<Book> action);
+
 }
@@ -0,0 +1,7 @@
+package com.gustavowendel.libraryapi.service;
+
+public enum CountMode {
+    EXACT,
+    ESTIMATED,
+    NONE
+}
@@ -0,0 +1,14 @@
+package com.gustavowendel.libraryapi.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface EmailService {
+
+    /*
+     * Queues the mails and returns at once. The future completes once every mail has been sent
+     * or given up on, with the recipients that were not delivered, including those still queued
+     * when the service stopped.
+     */
+    CompletableFuture<List<String>> sendMails(String subject, String message, List<String> mailsList);
+}
@@ -1,7 +1,27 @@
 package com.gustavowendel.libraryapi.service;
 
 import com.gustavowendel.libraryapi.model.entity.Loan;
+import com.gustavowendel.libraryapi.model.entity.repository.CustomerLoan;
+import com.gustavowendel.libraryapi.model.entity.repository.LateLoan;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 
 public interface LoanService {
     Loan save(Loan loan);
+
+    List<Loan> saveAll(List<Loan> loans);
+
+    Optional<Loan> getById(Long id);
+
+    Loan update(Loan loan);
+
+    Page<Loan> find(String isbn, String customer, Pageable pageable);
+
+    Page<CustomerLoan> getCustomerLoans(String customer, boolean active, Pageable pageable);
+
+    List<LateLoan> getLateLoans(LocalDate loanedUntil, LocalDate afterDate, Long afterId, int limit);
 }
@@ -0,0 +1,21 @@
+package com.gustavowendel.libraryapi.service;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveBookService {
+
+    Mono<Book> save(Book book);
+
+    Mono<Book> getById(Long id);
+
+    Mono<Void> delete(Book book);
+
+    Mono<Book> update(Book book);
+
+    Mono<Page<Book>> find(Book filter, Pageable pageRequest);
+
+    Mono<Book> getBookByIsbn(String isbn);
+}
@@ -0,0 +1,17 @@
+package com.gustavowendel.libraryapi.service;
+
+import com.gustavowendel.libraryapi.model.entity.Loan;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveLoanService {
+
+    Mono<Loan> save(Loan loan);
+
+    Mono<Loan> getById(Long id);
+
+    Mono<Loan> update(Loan loan);
+
+    Mono<Page<Loan>> find(String isbn, String customer, Pageable pageRequest);
+}
@@ -0,0 +1,94 @@
+package com.gustavowendel.libraryapi.service;
+
+import com.gustavowendel.libraryapi.model.entity.JobCheckpoint;
+import com.gustavowendel.libraryapi.model.entity.repository.JobCheckpointRepository;
+import com.gustavowendel.libraryapi.model.entity.repository.LateLoan;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Each run walks the loans that became late since the previous one, in (loan_date, id) order
+ * and one page at a time, so no query ever loads the whole table. The checkpoint is only
+ * moved past a loan once its mail has been delivered: a page is sent and waited for before the
+ * next one is read, and a run stops at the first loan whose mail was given up on, so the next
+ * run tries it again. The rest of that page may then be warned twice, but nobody is skipped.
+ */
+@Slf4j
+@Service
+public class ScheduleService {
+
+    static final String LATE_LOANS_JOB = "late-loans";
+    private static final LocalDate FIRST_LOAN_DATE = LocalDate.of(1970, 1, 1);
+
+    private final LoanService loanService;
+    private final EmailService emailService;
+    private final JobCheckpointRepository checkpointRepository;
+    private final int loanDays;
+    private final int pageSize;
+    private final String subject;
+    private final String message;
+
+    public ScheduleService(LoanService loanService, EmailService emailService,
+                           JobCheckpointRepository checkpointRepository,
+                           @Value("${library.late-loans.loan-days:3}") int loanDays,
+                           @Value("${library.late-loans.page-size:500}") int pageSize,
+                           @Value("${library.late-loans.subject:Livro com empréstimo atrasado}") String subject,
+                           @Value("${library.late-loans.message:Atenção! Você tem um empréstimo atrasado. Favor devolver o livro o mais rápido possível.}") String message) {
+        this.loanService = loanService;
+        this.emailService = emailService;
+        this.checkpointRepository = checkpointRepository;
+        this.loanDays = loanDays;
+        this.pageSize = pageSize;
+        this.subject = subject;
+        this.message = message;
+    }
+
+    @Scheduled(cron = "${library.late-loans.cron:0 0 0 * * *}")
+    public void sendMailToLateLoans() {
+        LocalDate loanedUntil = LocalDate.now().minusDays(loanDays);
+        JobCheckpoint checkpoint = checkpointRepository.findById(LATE_LOANS_JOB)
+                .orElseGet(() -> new JobCheckpoint(LATE_LOANS_JOB, FIRST_LOAN_DATE, 0L));
+
+        int notified = 0;
+        List<LateLoan> loans;
+        do {
+            loans = loanService.getLateLoans(loanedUntil, checkpoint.getLastLoanDate(), checkpoint.getLastLoanId(), pageSize);
+            if (loans.isEmpty()) {
+                break;
+            }
+            List<String> mails = new ArrayList<>(loans.size());
+            for (LateLoan loan : loans) {
+                if (loan.getCustomerEmail() != null) {
+                    mails.add(loan.getCustomerEmail());
+                }
+            }
+            Set<String> undelivered = new HashSet<>(emailService.sendMails(subject, message, mails).join());
+            notified += mails.size() - undelivered.size();
+
+            int delivered = 0;
+            while (delivered < loans.size() && !undelivered.contains(loans.get(delivered).getCustomerEmail())) {
+                delivered++;
+            }
+            if (delivered > 0) {
+                LateLoan last = loans.get(delivered - 1);
+                checkpoint.setLastLoanDate(last.getLoanDate());
+                checkpoint.setLastLoanId(last.getId());
+                checkpointRepository.save(checkpoint);
+            }
+            if (delivered < loans.size()) {
+                log.warn("Late loans scan stopped at loan {}: {} mails were not delivered", loans.get(delivered).getId(), undelivered.size());
+                break;
+            }
+        } while (loans.size() == pageSize);
+
+        log.info("Late loans scan up to {} delivered {} mails", loanedUntil, notified);
+    }
+}
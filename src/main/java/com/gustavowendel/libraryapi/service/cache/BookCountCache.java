@@ -0,0 +1,49 @@
+package com.gustavowendel.libraryapi.service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.repository.BookRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+ * Totals for the estimated count mode. Once an entry is older than refresh-after-write the
+ * next read still gets the old value and the count query runs again in the background.
+ */
+@Component
+public class BookCountCache implements MeterBinder {
+
+    private final LoadingCache<Book, Long> cache;
+
+    public BookCountCache(BookRepository repository,
+                          @Value("${library.cache.count.maximum-size:1000}") long maximumSize,
+                          @Value("${library.cache.count.refresh-after-write:30s}") Duration refreshAfterWrite,
+                          @Value("${library.cache.count.expire-after-access:10m}") Duration expireAfterAccess) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(refreshAfterWrite)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build(repository::countContaining);
+    }
+
+    public long get(Book filter) {
+        Book key = Book.builder().title(filter.getTitle()).author(filter.getAuthor()).isbn(filter.getIsbn()).build();
+        return cache.get(key);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "books.count");
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", "books.count")
+                .register(registry);
+    }
+}
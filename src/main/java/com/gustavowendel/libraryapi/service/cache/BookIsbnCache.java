@@ -0,0 +1,79 @@
+package com.gustavowendel.libraryapi.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gustavowendel.libraryapi.model.entity.Book;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/*
+ * Isbns known not to be registered. Books found by isbn are cached by Hibernate through the
+ * natural id, but it doesn't remember misses, and those are what the duplicate check on save
+ * and lookups of unknown isbns ask about. An isbn only stops being missing when a book is
+ * saved with it, so evicting on save is all the invalidation there is.
+ */
+@Component
+public class BookIsbnCache implements MeterBinder {
+
+    private final Cache<String, Boolean> missing;
+
+    public BookIsbnCache(@Value("${library.cache.isbn.maximum-size:10000}") long maximumSize,
+                         @Value("${library.cache.isbn.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /*
+     * The query runs inside the cache's atomic compute: an evict for the same isbn waits for it
+     * and then drops what it stored, so a lookup that read the table before a concurrent save
+     * committed can't leave the saved isbn marked missing.
+     */
+    public Optional<Book> get(String isbn, Function<String, Optional<Book>> loader) {
+        if (isbn == null) {
+            return loader.apply(null);
+        }
+        AtomicReference<Optional<Book>> loaded = new AtomicReference<>();
+        missing.get(isbn, key -> {
+            Optional<Book> book = loader.apply(key);
+            loaded.set(book);
+            return book.isPresent() ? null : Boolean.TRUE;
+        });
+        // Nothing loaded means the isbn was already known to be missing.
+        Optional<Book> book = loaded.get();
+        return book != null ? book : Optional.empty();
+    }
+
+    public boolean exists(String isbn, Predicate<String> loader) {
+        if (isbn == null) {
+            return loader.test(null);
+        }
+        return missing.get(isbn, key -> loader.test(key) ? null : Boolean.TRUE) == null;
+    }
+
+    public void evictIsbn(String isbn) {
+        if (isbn != null) {
+            missing.invalidate(isbn);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, missing, "books.isbn");
+        Gauge.builder("cache.hit.ratio", missing, c -> c.stats().hitRate())
+                .tag("cache", "books.isbn")
+                .register(registry);
+    }
+}
@@ -0,0 +1,70 @@
+package com.gustavowendel.libraryapi.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.repository.BookVersion;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/*
+ * Current version of each book, so a conditional GET can be answered without loading it.
+ * Versions only grow: a reader that loaded the row before an update and stores it after
+ * can't replace the newer version. Updates made by other instances are picked up once the
+ * entry expires, which bounds how long a client can be told a changed book is unchanged.
+ */
+@Component
+public class BookVersionCache implements MeterBinder {
+
+    private final Cache<Long, BookVersion> cache;
+
+    public BookVersionCache(@Value("${library.cache.version.maximum-size:100000}") long maximumSize,
+                            @Value("${library.cache.version.expire-after-write:1m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<BookVersion> get(Long id, Function<Long, Optional<BookVersion>> loader) {
+        BookVersion cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<BookVersion> loaded = loader.apply(id);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public void put(Book book) {
+        if (book != null && book.getId() != null && book.getVersion() != null) {
+            put(BookVersion.of(book));
+        }
+    }
+
+    public void evict(Long id) {
+        cache.invalidate(id);
+    }
+
+    private void put(BookVersion version) {
+        cache.asMap().merge(version.getId(), version,
+                (current, candidate) -> candidate.getVersion() >= current.getVersion() ? candidate : current);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "books.version");
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", "books.version")
+                .register(registry);
+    }
+}
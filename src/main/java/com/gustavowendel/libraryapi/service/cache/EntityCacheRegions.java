@@ -0,0 +1,78 @@
+package com.gustavowendel.libraryapi.service.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.gustavowendel.libraryapi.model.entity.Book;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ObjectUtils;
+
+import jakarta.annotation.PreDestroy;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/*
+ * Regions of Hibernate's second-level cache: bounded Caffeine caches behind JCache, created
+ * here so their size comes from the application properties. Hibernate is set to fail on a
+ * region that isn't created here instead of adding an unbounded one.
+ */
+@Component
+public class EntityCacheRegions implements HibernatePropertiesCustomizer, MeterBinder {
+
+    private final CacheManager cacheManager;
+
+    public EntityCacheRegions(@Value("${library.cache.entity.book.maximum-size:10000}") long bookSize,
+                              @Value("${library.cache.entity.book-isbn.maximum-size:10000}") long isbnSize,
+                              @Value("${library.cache.entity.expire-after-write:10m}") Duration expireAfterWrite) {
+        // Named after this instance: managers are shared per URI, and an old and a new context can overlap.
+        this.cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("library-entities-" + ObjectUtils.getIdentityHexString(this)), getClass().getClassLoader());
+        createRegion(Book.CACHE_REGION, bookSize, expireAfterWrite);
+        createRegion(Book.ISBN_CACHE_REGION, isbnSize, expireAfterWrite);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = cacheManager.getCache(region);
+            com.github.benmanes.caffeine.cache.Cache<?, ?> entries = cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+            new JCacheMetrics<>(cache, Tags.empty()) {
+                @Override
+                protected Long size() {
+                    return entries.estimatedSize();
+                }
+            }.bindTo(registry);
+        }
+    }
+
+    // Also drops the manager from the provider and unregisters its statistics.
+    @PreDestroy
+    public void close() {
+        cacheManager.close();
+    }
+
+    private void createRegion(String region, long maximumSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+}
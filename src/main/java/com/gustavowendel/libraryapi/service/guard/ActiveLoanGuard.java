@@ -0,0 +1,9 @@
+package com.gustavowendel.libraryapi.service.guard;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+public interface ActiveLoanGuard {
+
+    <T> T guard(Collection<Long> bookIds, Supplier<T> action);
+}
@@ -0,0 +1,17 @@
+package com.gustavowendel.libraryapi.service.guard;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+@Component
+@ConditionalOnProperty(name = "library.loan.guard", havingValue = "constraint", matchIfMissing = true)
+public class ConstraintActiveLoanGuard implements ActiveLoanGuard {
+
+    @Override
+    public <T> T guard(Collection<Long> bookIds, Supplier<T> action) {
+        return action.get();
+    }
+}
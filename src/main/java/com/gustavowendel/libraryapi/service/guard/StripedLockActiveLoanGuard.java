@@ -0,0 +1,60 @@
+package com.gustavowendel.libraryapi.service.guard;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+@ConditionalOnProperty(name = "library.loan.guard", havingValue = "striped")
+public class StripedLockActiveLoanGuard implements ActiveLoanGuard {
+
+    private final ReentrantLock[] stripes;
+
+    public StripedLockActiveLoanGuard(@Value("${library.loan.guard-stripes:1024}") int stripes) {
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(stripes - 1, 1)) << 1];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public <T> T guard(Collection<Long> bookIds, Supplier<T> action) {
+        // Stripes are always taken in ascending order so two batches can't deadlock each other.
+        TreeSet<Integer> indexes = new TreeSet<>();
+        bookIds.forEach(bookId -> indexes.add(stripeIndex(bookId)));
+        indexes.forEach(index -> stripes[index].lock());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Keep the stripes until the surrounding transaction commits, otherwise a
+            // second checkout could pass the check before this insert is visible.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    unlock(indexes);
+                }
+            });
+            return action.get();
+        }
+        try {
+            return action.get();
+        } finally {
+            unlock(indexes);
+        }
+    }
+
+    private void unlock(TreeSet<Integer> indexes) {
+        indexes.descendingSet().forEach(index -> stripes[index].unlock());
+    }
+
+    private int stripeIndex(Long bookId) {
+        int hash = bookId == null ? 0 : bookId.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -1,37 +1,98 @@
 package com.gustavowendel.libraryapi.service.impl;
 
 import com.gustavowendel.libraryapi.exception.BusinessException;
+import com.gustavowendel.libraryapi.exception.IntegrityViolations;
 import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.repository.BookKeyset;
 import com.gustavowendel.libraryapi.model.entity.repository.BookRepository;
+import com.gustavowendel.libraryapi.model.entity.repository.BookVersion;
 import com.gustavowendel.libraryapi.service.BookService;
+import com.gustavowendel.libraryapi.service.cache.BookCountCache;
+import com.gustavowendel.libraryapi.service.cache.BookIsbnCache;
+import com.gustavowendel.libraryapi.service.cache.BookVersionCache;
+import com.gustavowendel.libraryapi.service.search.BookSearchIndex;
+import com.gustavowendel.libraryapi.service.writebehind.BookUpdateBuffer;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 public class BookServiceImpl implements BookService {
 
+    private static final int IN_CLAUSE_SIZE = 1000;
+
     private final BookRepository repository;
+    private final BookIsbnCache isbnCache;
+    private final BookCountCache countCache;
+    private final BookSearchIndex searchIndex;
+    private final BookVersionCache versionCache;
+    private final BookUpdateBuffer updateBuffer;
 
-    public BookServiceImpl(BookRepository repository) {
+    public BookServiceImpl(BookRepository repository, BookIsbnCache isbnCache, BookCountCache countCache,
+                           BookSearchIndex searchIndex, BookVersionCache versionCache, BookUpdateBuffer updateBuffer) {
         this.repository = repository;
+        this.isbnCache = isbnCache;
+        this.countCache = countCache;
+        this.searchIndex = searchIndex;
+        this.versionCache = versionCache;
+        this.updateBuffer = updateBuffer;
+        updateBuffer.onFlush(versionCache::put);
+        updateBuffer.onConflict(this::reload);
     }
 
     @Override
     public Book save(Book book) {
-        if(repository.existsByIsbn(book.getIsbn())) {
-            throw new BusinessException("Isbn já cadastrado");
+        if(isbnCache.exists(book.getIsbn(), repository::existsByIsbn)) {
+            throw new BusinessException(IntegrityViolations.DUPLICATED_ISBN);
+        }
+        try {
+            // A new book: an id sent by the client would make it look detached.
+            book.setId(null);
+            Book saved = repository.save(book);
+            searchIndex.put(saved);
+            return saved;
+        } catch (DataIntegrityViolationException ex) {
+            throw IntegrityViolations.translate(ex);
+        } finally {
+            isbnCache.evictIsbn(book.getIsbn());
         }
-        return repository.save(book);
     }
 
     @Override
     public Optional<Book> getById(Long id) {
-        return this.repository.findById(id);
+        Optional<Book> book = this.repository.findById(id);
+        book.ifPresent(versionCache::put);
+        return book.map(updateBuffer::overlay);
+    }
+
+    @Override
+    public Optional<BookVersion> getVersion(Long id) {
+        Optional<BookVersion> buffered = updateBuffer.getVersion(id);
+        return buffered.isPresent() ? buffered : versionCache.get(id, repository::findVersionById);
     }
 
     @Override
@@ -39,7 +100,38 @@ public class BookServiceImpl implements BookService {
         if(book == null || book.getId() == null) {
             throw new IllegalArgumentException("Book id can't be null.");
         }
+        updateBuffer.discard(book.getId());
         this.repository.delete(book);
+        versionCache.evict(book.getId());
+        searchIndex.remove(book.getId());
+    }
+
+    @Override
+    @Transactional
+    public boolean deleteById(Long id) {
+        boolean deleted = repository.deleteBook(id) > 0;
+        if (deleted) {
+            afterCommit(() -> evict(List.of(id)));
+        }
+        return deleted;
+    }
+
+    /*
+     * Neither the books nor their loans are loaded: one select finds the ids without loans and
+     * one delete removes them, per chunk of ids.
+     */
+    @Override
+    @Transactional
+    public int deleteAllById(Collection<Long> ids) {
+        List<Long> deleted = inChunks(new ArrayList<>(new HashSet<>(ids)), chunk -> {
+            List<Long> deletable = repository.findIdsWithoutLoans(chunk);
+            if (!deletable.isEmpty()) {
+                repository.deleteBooks(deletable);
+            }
+            return deletable;
+        });
+        afterCommit(() -> evict(deleted));
+        return deleted.size();
     }
 
     @Override
@@ -47,11 +139,46 @@ public class BookServiceImpl implements BookService {
         if(book == null || book.getId() == null) {
             throw new IllegalArgumentException("Book id can't be null.");
         }
-        return this.repository.save(book);
+        Book updated = updateBuffer.isEnabled() ? updateBuffer.update(book) : this.repository.save(book);
+        versionCache.put(updated);
+        searchIndex.put(updated);
+        return updated;
+    }
+
+    /*
+     * Updates title and author with a single statement, without reading the book first. A book
+     * with a buffered update goes through the buffer so the edits stay in order.
+     */
+    @Override
+    @Transactional
+    public boolean updateById(Long id, String title, String author, Long expectedVersion) {
+        Optional<Book> buffered = updateBuffer.get(id);
+        if (buffered.isPresent()) {
+            Book book = buffered.get();
+            if (expectedVersion != null && !expectedVersion.equals(book.getVersion())) {
+                return false;
+            }
+            book.setTitle(title);
+            book.setAuthor(author);
+            update(book);
+            return true;
+        }
+        boolean updated = repository.updateBook(id, title, author, expectedVersion,
+                Instant.now().truncatedTo(ChronoUnit.MILLIS)) > 0;
+        if (updated) {
+            afterCommit(() -> {
+                versionCache.evict(id);
+                searchIndex.put(Book.builder().id(id).title(title).author(author).build());
+            });
+        }
+        return updated;
     }
 
     @Override
     public Page<Book> find(Book filter, Pageable pageableRequest) {
+        if (isIndexed(filter, pageableRequest)) {
+            return findIndexed(filter, pageableRequest);
+        }
         Example<Book> example = Example.of(filter, ExampleMatcher
                 .matching()
                 .withIgnoreCase()
@@ -62,8 +189,141 @@ public class BookServiceImpl implements BookService {
         return repository.findAll(example, pageableRequest);
     }
 
+    @Override
+    public Slice<Book> findWithoutCount(Book filter, Pageable pageableRequest) {
+        if (isIndexed(filter, pageableRequest)) {
+            return findIndexed(filter, pageableRequest);
+        }
+        int size = pageableRequest.getPageSize();
+        List<Book> books = repository.findContaining(filter, pageableRequest, size + 1);
+        boolean hasNext = books.size() > size;
+        return new SliceImpl<>(hasNext ? books.subList(0, size) : books, pageableRequest, hasNext);
+    }
+
+    @Override
+    public Page<Book> findWithEstimatedCount(Book filter, Pageable pageableRequest) {
+        if (isIndexed(filter, pageableRequest)) {
+            return findIndexed(filter, pageableRequest);
+        }
+        Slice<Book> slice = findWithoutCount(filter, pageableRequest);
+        long fetched = pageableRequest.getOffset() + slice.getNumberOfElements();
+        long total;
+        if (!slice.hasNext() && (slice.hasContent() || pageableRequest.getOffset() == 0)) {
+            total = fetched;
+        } else {
+            total = Math.max(countCache.get(filter), slice.hasNext() ? fetched + 1 : fetched);
+        }
+        return new PageImpl<>(slice.getContent(), pageableRequest, total);
+    }
+
+    @Override
+    public Slice<Book> findAfter(Book filter, BookKeyset keyset, int size) {
+        List<Book> books = repository.findAfter(filter, keyset, size + 1);
+        boolean hasNext = books.size() > size;
+        List<Book> content = hasNext ? books.subList(0, size) : books;
+        return new SliceImpl<>(content, PageRequest.of(0, size, keyset.toSort()), hasNext);
+    }
+
     @Override
     public Optional<Book> getBookByIsbn(String isbn) {
-        return repository.findByIsbn(isbn);
+        return isbnCache.get(isbn, repository::findByIsbn).map(updateBuffer::overlay);
+    }
+
+    @Override
+    @Transactional
+    public List<Book> saveAll(List<Book> books) {
+        Set<String> registered = findRegisteredIsbns(books);
+        List<Book> saving = new ArrayList<>(books.size());
+        for (Book book : books) {
+            if (registered.add(book.getIsbn())) {
+                book.setId(null);
+                saving.add(book);
+            }
+        }
+        List<Book> saved = repository.saveAll(saving);
+        afterCommit(() -> {
+            saving.forEach(book -> isbnCache.evictIsbn(book.getIsbn()));
+            saved.forEach(searchIndex::put);
+        });
+        return saved;
+    }
+
+    @Override
+    public List<Book> getBooksByIsbn(Collection<String> isbns) {
+        return inChunks(new ArrayList<>(isbns), repository::findByIsbnIn);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void export(Consumer<Book> action) {
+        repository.forEachBook(action);
+    }
+
+    private boolean isIndexed(Book filter, Pageable pageable) {
+        return searchIndex.isReady()
+                && filter.getIsbn() == null
+                && (filter.getTitle() != null || filter.getAuthor() != null)
+                && pageable.isPaged()
+                && searchIndex.canSort(pageable.getSort());
+    }
+
+    private Page<Book> findIndexed(Book filter, Pageable pageable) {
+        List<BookSearchIndex.Entry> matches = searchIndex.search(filter.getTitle(), filter.getAuthor(), pageable.getSort());
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<Long> ids = new ArrayList<>(to - from);
+        matches.subList(from, to).forEach(entry -> ids.add(entry.getId()));
+
+        Map<Long, Book> found = new HashMap<>();
+        repository.findAllById(ids).forEach(book -> found.put(book.getId(), book));
+        List<Book> content = new ArrayList<>(ids.size());
+        ids.stream().map(found::get).filter(Objects::nonNull).forEach(content::add);
+        return new PageImpl<>(content, pageable, matches.size());
+    }
+
+    // The version and text of a dropped buffered edit were already handed out; back to what is stored.
+    private void reload(Long id) {
+        versionCache.evict(id);
+        Optional<Book> book = repository.findById(id);
+        if (book.isPresent()) {
+            searchIndex.put(book.get());
+        } else {
+            searchIndex.remove(id);
+        }
+    }
+
+    private void evict(Collection<Long> ids) {
+        for (Long id : ids) {
+            updateBuffer.discard(id);
+            versionCache.evict(id);
+            searchIndex.remove(id);
+        }
+    }
+
+    private Set<String> findRegisteredIsbns(List<Book> books) {
+        List<String> isbns = new ArrayList<>(books.size());
+        books.forEach(book -> isbns.add(book.getIsbn()));
+        return new HashSet<>(inChunks(isbns, repository::findExistingIsbns));
+    }
+
+    private <T, R> List<R> inChunks(List<T> values, Function<List<T>, List<R>> query) {
+        List<R> result = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += IN_CLAUSE_SIZE) {
+            result.addAll(query.apply(values.subList(from, Math.min(from + IN_CLAUSE_SIZE, values.size()))));
+        }
+        return result;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
@@ -0,0 +1,250 @@
+package com.gustavowendel.libraryapi.service.impl;
+
+import com.gustavowendel.libraryapi.service.EmailService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Mails are queued and sent by a single worker, so callers never talk to the relay directly.
+ * The queue is bounded: once it is full sendMails blocks, which slows the producer down to the
+ * rate the relay accepts. The worker sends up to batch-size messages per connection, keeps
+ * under rate-per-second and retries failed recipients with exponential backoff. Each call gets
+ * its own future, completed once all of its mails are delivered or given up on, so callers can
+ * tell what actually went out.
+ */
+@Slf4j
+@Service
+public class EmailServiceImpl implements EmailService {
+
+    private final MailSender mailSender;
+    private final String sender;
+    private final BlockingQueue<Outgoing> queue;
+    private final int batchSize;
+    private final long nanosPerMessage;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mail-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running;
+    private long nextSendAt = System.nanoTime();
+
+    public EmailServiceImpl(MailSender mailSender,
+                            @Value("${library.mail.default-sender:mail@library-api.com}") String sender,
+                            @Value("${library.mail.queue-capacity:1000}") int queueCapacity,
+                            @Value("${library.mail.batch-size:50}") int batchSize,
+                            @Value("${library.mail.rate-per-second:10}") double ratePerSecond,
+                            @Value("${library.mail.max-attempts:3}") int maxAttempts,
+                            @Value("${library.mail.retry-backoff:1s}") Duration retryBackoff) {
+        this.mailSender = mailSender;
+        this.sender = sender;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.nanosPerMessage = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+
+    @Override
+    public CompletableFuture<List<String>> sendMails(String subject, String message, List<String> mailsList) {
+        Delivery delivery = new Delivery(mailsList.size());
+        for (String mail : mailsList) {
+            SimpleMailMessage mailMessage = new SimpleMailMessage();
+            mailMessage.setFrom(sender);
+            mailMessage.setSubject(subject);
+            mailMessage.setText(message);
+            mailMessage.setTo(mail);
+            try {
+                queue.put(new Outgoing(mailMessage, delivery));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queueing mails", ex);
+            }
+        }
+        return delivery.future;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker.execute(this::dispatch);
+    }
+
+    /*
+     * Stops taking new work and waits for the queued mails to go out, for as long as the queue
+     * keeps shrinking: only a relay that stopped accepting anything cuts the drain short. Mails
+     * left over then are reported as undelivered.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.shutdown();
+        int queued = queue.size();
+        while (!worker.awaitTermination(1, TimeUnit.MINUTES)) {
+            if (queue.size() >= queued) {
+                log.warn("Mail dispatcher stopped with {} mails still queued", queue.size());
+                worker.shutdownNow();
+                return;
+            }
+            queued = queue.size();
+        }
+    }
+
+    private void dispatch() {
+        List<Outgoing> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                Outgoing first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.clear();
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                send(batch);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            batch.forEach(outgoing -> outgoing.finish(false));
+            List<Outgoing> abandoned = new ArrayList<>();
+            queue.drainTo(abandoned);
+            abandoned.forEach(outgoing -> outgoing.finish(false));
+        }
+    }
+
+    private void send(List<Outgoing> batch) throws InterruptedException {
+        List<Outgoing> pending = batch;
+        for (int attempt = 1; ; attempt++) {
+            throttle(pending.size());
+            try {
+                mailSender.send(pending.stream().map(outgoing -> outgoing.message).toArray(SimpleMailMessage[]::new));
+                pending.forEach(outgoing -> outgoing.finish(true));
+                return;
+            } catch (MailException ex) {
+                List<Outgoing> failed = failed(pending, ex);
+                pending.stream().filter(outgoing -> !failed.contains(outgoing)).forEach(outgoing -> outgoing.finish(true));
+                pending = failed;
+                if (attempt >= maxAttempts) {
+                    log.error("Giving up on {} mails after {} attempts", pending.size(), attempt, ex);
+                    pending.forEach(outgoing -> outgoing.finish(false));
+                    return;
+                }
+                log.warn("Failed to send {} mails, attempt {} of {}", pending.size(), attempt, maxAttempts, ex);
+                Thread.sleep(retryBackoff.toMillis() << (attempt - 1));
+            }
+        }
+    }
+
+    private void throttle(int messages) throws InterruptedException {
+        long now = System.nanoTime();
+        if (nextSendAt > now) {
+            TimeUnit.NANOSECONDS.sleep(nextSendAt - now);
+            now = nextSendAt;
+        }
+        nextSendAt = now + messages * nanosPerMessage;
+    }
+
+    // Only the recipients the relay rejected are tried again; without details the whole batch is.
+    private List<Outgoing> failed(List<Outgoing> pending, MailException ex) {
+        if (!(ex instanceof MailSendException) || ((MailSendException) ex).getFailedMessages().isEmpty()) {
+            return pending;
+        }
+        Set<String> recipients = new HashSet<>();
+        for (Object message : ((MailSendException) ex).getFailedMessages().keySet()) {
+            recipients.addAll(recipients(message));
+        }
+        List<Outgoing> failed = new ArrayList<>();
+        for (Outgoing outgoing : pending) {
+            String[] to = outgoing.message.getTo();
+            if (to != null && !Collections.disjoint(recipients, Arrays.asList(to))) {
+                failed.add(outgoing);
+            }
+        }
+        return failed.isEmpty() ? pending : failed;
+    }
+
+    private List<String> recipients(Object message) {
+        if (message instanceof SimpleMailMessage && ((SimpleMailMessage) message).getTo() != null) {
+            return Arrays.asList(((SimpleMailMessage) message).getTo());
+        }
+        List<String> recipients = new ArrayList<>();
+        if (message instanceof MimeMessage) {
+            try {
+                Address[] addresses = ((MimeMessage) message).getAllRecipients();
+                if (addresses != null) {
+                    for (Address address : addresses) {
+                        recipients.add(address.toString());
+                    }
+                }
+            } catch (MessagingException ignored) {
+                // falls back to retrying the whole batch
+            }
+        }
+        return recipients;
+    }
+
+    // The mails of one sendMails call; only touched by the dispatcher once queued.
+    private static class Delivery {
+
+        private final CompletableFuture<List<String>> future = new CompletableFuture<>();
+        private final List<String> undelivered = new ArrayList<>();
+        private int pending;
+
+        Delivery(int pending) {
+            this.pending = pending;
+            if (pending == 0) {
+                future.complete(undelivered);
+            }
+        }
+
+        void finish(SimpleMailMessage message, boolean delivered) {
+            if (!delivered && message.getTo() != null) {
+                undelivered.addAll(Arrays.asList(message.getTo()));
+            }
+            if (--pending == 0) {
+                future.complete(undelivered);
+            }
+        }
+    }
+
+    private static class Outgoing {
+
+        private final SimpleMailMessage message;
+        private final Delivery delivery;
+        private boolean finished;
+
+        Outgoing(SimpleMailMessage message, Delivery delivery) {
+            this.message = message;
+            this.delivery = delivery;
+        }
+
+        void finish(boolean delivered) {
+            if (!finished) {
+                finished = true;
+                delivery.finish(message, delivered);
+            }
+        }
+    }
+}
@@ -1,25 +1,111 @@
 package com.gustavowendel.libraryapi.service.impl;
 
 import com.gustavowendel.libraryapi.exception.BusinessException;
+import com.gustavowendel.libraryapi.exception.IntegrityViolations;
 import com.gustavowendel.libraryapi.model.entity.Loan;
+import com.gustavowendel.libraryapi.model.entity.repository.CustomerLoan;
+import com.gustavowendel.libraryapi.model.entity.repository.LateLoan;
 import com.gustavowendel.libraryapi.model.entity.repository.LoanRepository;
 import com.gustavowendel.libraryapi.service.LoanService;
+import com.gustavowendel.libraryapi.service.guard.ActiveLoanGuard;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class LoanServiceImpl implements LoanService {
 
+    private static final int IN_CLAUSE_SIZE = 1000;
+
     private final LoanRepository repository;
+    private final ActiveLoanGuard guard;
 
-    public LoanServiceImpl(LoanRepository repository) {
+    public LoanServiceImpl(LoanRepository repository, ActiveLoanGuard guard) {
         this.repository = repository;
+        this.guard = guard;
     }
 
     @Override
     public Loan save(Loan loan) {
-        if(repository.existsByBookAndNotReturned(loan.getBook())){
-            throw new BusinessException("Book already loaned");
+        return guard.guard(Collections.singleton(loan.getBook().getId()), () -> {
+            if(repository.existsByBookAndNotReturned(loan.getBook())){
+                throw new BusinessException(IntegrityViolations.BOOK_ALREADY_LOANED);
+            }
+            try {
+                return repository.save(loan);
+            } catch (DataIntegrityViolationException ex) {
+                throw IntegrityViolations.translate(ex);
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public List<Loan> saveAll(List<Loan> loans) {
+        List<Long> bookIds = new ArrayList<>(loans.size());
+        loans.forEach(loan -> bookIds.add(loan.getBook().getId()));
+        return guard.guard(bookIds, () -> saveAvailable(loans, bookIds));
+    }
+
+    @Override
+    public Optional<Loan> getById(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public Loan update(Loan loan) {
+        if(loan == null || loan.getId() == null) {
+            throw new IllegalArgumentException("Loan id can't be null.");
+        }
+        return guard.guard(Collections.singleton(loan.getBook().getId()), () -> {
+            try {
+                return repository.save(loan);
+            } catch (DataIntegrityViolationException ex) {
+                throw IntegrityViolations.translate(ex);
+            }
+        });
+    }
+
+    @Override
+    public Page<Loan> find(String isbn, String customer, Pageable pageable) {
+        return repository.findByBookIsbnAndCustomer(isbn, customer, pageable);
+    }
+
+    @Override
+    public Page<CustomerLoan> getCustomerLoans(String customer, boolean active, Pageable pageable) {
+        return active
+                ? repository.findActiveCustomerLoans(customer, pageable)
+                : repository.findCustomerLoans(customer, pageable);
+    }
+
+    @Override
+    public List<LateLoan> getLateLoans(LocalDate loanedUntil, LocalDate afterDate, Long afterId, int limit) {
+        return repository.findLateLoans(loanedUntil, afterDate, afterId, PageRequest.of(0, limit));
+    }
+
+    private List<Loan> saveAvailable(List<Loan> loans, List<Long> bookIds) {
+        Set<Long> loaned = new HashSet<>();
+        for (int from = 0; from < bookIds.size(); from += IN_CLAUSE_SIZE) {
+            loaned.addAll(repository.findLoanedBookIds(bookIds.subList(from, Math.min(from + IN_CLAUSE_SIZE, bookIds.size()))));
+        }
+
+        List<Loan> saving = new ArrayList<>(loans.size());
+        for (Loan loan : loans) {
+            if (loaned.add(loan.getBook().getId())) {
+                saving.add(loan);
+            }
         }
-        return repository.save(loan);
+        return repository.saveAll(saving);
     }
 }
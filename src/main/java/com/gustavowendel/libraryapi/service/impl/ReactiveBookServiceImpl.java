@@ -0,0 +1,59 @@
+package com.gustavowendel.libraryapi.service.impl;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.service.BookService;
+import com.gustavowendel.libraryapi.service.ReactiveBookService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/*
+ * JDBC blocks, so every call runs on the jdbc scheduler and never on an event loop thread.
+ * The scheduler is as large as the connection pool: more threads would only wait for a
+ * connection, and requests beyond that queue there without holding a thread.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveBookServiceImpl implements ReactiveBookService {
+
+    private final BookService service;
+    private final Scheduler jdbcScheduler;
+
+    public ReactiveBookServiceImpl(BookService service, Scheduler jdbcScheduler) {
+        this.service = service;
+        this.jdbcScheduler = jdbcScheduler;
+    }
+
+    @Override
+    public Mono<Book> save(Book book) {
+        return Mono.fromCallable(() -> service.save(book)).subscribeOn(jdbcScheduler);
+    }
+
+    @Override
+    public Mono<Book> getById(Long id) {
+        return Mono.fromCallable(() -> service.getById(id).orElse(null)).subscribeOn(jdbcScheduler);
+    }
+
+    @Override
+    public Mono<Void> delete(Book book) {
+        return Mono.<Void>fromRunnable(() -> service.delete(book)).subscribeOn(jdbcScheduler);
+    }
+
+    @Override
+    public Mono<Book> update(Book book) {
+        return Mono.fromCallable(() -> service.update(book)).subscribeOn(jdbcScheduler);
+    }
+
+    @Override
+    public Mono<Page<Book>> find(Book filter, Pageable pageRequest) {
+        return Mono.fromCallable(() -> service.find(filter, pageRequest)).subscribeOn(jdbcScheduler);
+    }
+
+    @Override
+    public Mono<Book> getBookByIsbn(String isbn) {
+        return Mono.fromCallable(() -> service.getBookByIsbn(isbn).orElse(null)).subscribeOn(jdbcScheduler);
+    }
+}
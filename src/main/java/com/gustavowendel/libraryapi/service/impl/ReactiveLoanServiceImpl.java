@@ -0,0 +1,44 @@
+package com.gustavowendel.libraryapi.service.impl;
+
+import com.gustavowendel.libraryapi.model.entity.Loan;
+import com.gustavowendel.libraryapi.service.LoanService;
+import com.gustavowendel.libraryapi.service.ReactiveLoanService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+@Service
+@Profile("reactive")
+public class ReactiveLoanServiceImpl implements ReactiveLoanService {
+
+    private final LoanService service;
+    private final Scheduler jdbcScheduler;
+
+    public ReactiveLoanServiceImpl(LoanService service, Scheduler jdbcScheduler) {
+        this.service = service;
+        this.jdbcScheduler = jdbcScheduler;
+    }
+
+    @Override
+    public Mono<Loan> save(Loan loan) {
+        return Mono.fromCallable(() -> service.save(loan)).subscribeOn(jdbcScheduler);
+    }
+
+    @Override
+    public Mono<Loan> getById(Long id) {
+        return Mono.fromCallable(() -> service.getById(id).orElse(null)).subscribeOn(jdbcScheduler);
+    }
+
+    @Override
+    public Mono<Loan> update(Loan loan) {
+        return Mono.fromCallable(() -> service.update(loan)).subscribeOn(jdbcScheduler);
+    }
+
+    @Override
+    public Mono<Page<Loan>> find(String isbn, String customer, Pageable pageRequest) {
+        return Mono.fromCallable(() -> service.find(isbn, customer, pageRequest)).subscribeOn(jdbcScheduler);
+    }
+}
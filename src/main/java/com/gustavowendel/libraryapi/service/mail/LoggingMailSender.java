@@ -0,0 +1,31 @@
+package com.gustavowendel.libraryapi.service.mail;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/*
+ * Default sender for local runs and tests: mails are only logged. Set library.mail.sender=smtp
+ * together with the spring.mail.* properties to send through Spring Boot's JavaMailSender.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "library.mail.sender", havingValue = "log", matchIfMissing = true)
+public class LoggingMailSender implements MailSender {
+
+    @Override
+    public void send(SimpleMailMessage simpleMessage) {
+        log.info("Mail to {}: {}", Arrays.toString(simpleMessage.getTo()), simpleMessage.getSubject());
+    }
+
+    @Override
+    public void send(SimpleMailMessage... simpleMessages) {
+        for (SimpleMailMessage message : simpleMessages) {
+            send(message);
+        }
+    }
+}
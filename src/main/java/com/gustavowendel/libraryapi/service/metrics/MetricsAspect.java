@@ -0,0 +1,77 @@
+package com.gustavowendel.libraryapi.service.metrics;
+
+import com.gustavowendel.libraryapi.exception.BusinessException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+/*
+ * Percentiles and histogram buckets for library.service are configured under
+ * management.metrics.distribution, so the timers here only carry the tags.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+    private final MeterRegistry registry;
+
+    public MetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(* com.gustavowendel.libraryapi.service.BookService.*(..))")
+    public Object timeBookService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "BookService");
+    }
+
+    @Around("execution(* com.gustavowendel.libraryapi.service.LoanService.*(..))")
+    public Object timeLoanService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "LoanService");
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object countQuery(ProceedingJoinPoint joinPoint) throws Throwable {
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            registry.counter("library.repository.calls",
+                    "repository", repositoryName(joinPoint.getTarget()),
+                    "method", joinPoint.getSignature().getName(),
+                    "outcome", outcome).increment();
+        }
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, String service) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (BusinessException e) {
+            exception = e.getClass().getSimpleName();
+            registry.counter("library.business.errors", "reason", String.valueOf(e.getMessage())).increment();
+            throw e;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("library.service")
+                    .tag("class", service)
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(registry));
+        }
+    }
+
+    private String repositoryName(Object repository) {
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(repository);
+        return interfaces.length > 0 ? interfaces[0].getSimpleName() : repository.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,80 @@
+package com.gustavowendel.libraryapi.service.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Registered as hibernate.session_factory.statement_inspector, so Hibernate creates
+ * it itself; the counts live in a thread-local scope opened with start() and closed
+ * with stop(), which restores any enclosing scope.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Statements> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Statements statements = CURRENT.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public static Statements start() {
+        Statements statements = new Statements(CURRENT.get());
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    public static void stop(Statements statements) {
+        if (statements.enclosing != null) {
+            CURRENT.set(statements.enclosing);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    public static class Statements {
+
+        private final Statements enclosing;
+        private final Map<String, Integer> selects = new HashMap<>();
+        private int total;
+
+        private Statements(Statements enclosing) {
+            this.enclosing = enclosing;
+        }
+
+        private void add(String sql) {
+            total++;
+            if (sql.regionMatches(true, 0, "select", 0, 6)) {
+                selects.merge(sql, 1, Integer::sum);
+            }
+            if (enclosing != null) {
+                enclosing.add(sql);
+            }
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        /*
+         * The same select issued over and over within one scope is the signature of an
+         * N+1: one statement per row of a previous result instead of one join.
+         */
+        public Map<String, Integer> getRepeatedSelects(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            selects.forEach((sql, count) -> {
+                if (count >= threshold) {
+                    repeated.put(sql, count);
+                }
+            });
+            return repeated.isEmpty() ? Collections.emptyMap() : repeated;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.gustavowendel.libraryapi.service.search;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.repository.BookKeyset;
+import com.gustavowendel.libraryapi.model.entity.repository.BookRepository;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * Trigram index over title and author. A query is narrowed down by intersecting the posting
+ * lists of its trigrams and every candidate is then checked with a plain contains, so the
+ * answers are the same as the lower(..) like '%x%' query. Only writes made through
+ * BookService reach the index; it is rebuilt from the database on startup, while requests are
+ * already served, so a book written or removed during the rebuild keeps that write over the
+ * older copy the rebuild read. Results are only ordered by id: text is ordered by the
+ * database's collation, which depends on the database, so those sorts are left to it.
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    private final BookRepository repository;
+    private final boolean enabled;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Long>> titleGrams = new HashMap<>();
+    private final Map<String, Set<Long>> authorGrams = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Ids put or removed while the rebuild runs; null when it isn't running.
+    private Set<Long> touched;
+    private volatile boolean ready;
+
+    public BookSearchIndex(BookRepository repository,
+                           @Value("${library.search.index.enabled:false}") boolean enabled) {
+        this.repository = repository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        writeLocked(() -> touched = new HashSet<>());
+        try {
+            BookKeyset keyset = BookKeyset.first(Sort.by("id"));
+            List<Book> books;
+            do {
+                books = repository.findBatchAfter(keyset, BUILD_BATCH_SIZE);
+                List<Entry> batch = new ArrayList<>(books.size());
+                books.forEach(book -> batch.add(entry(book)));
+                writeLocked(() -> batch.stream().filter(entry -> !touched.contains(entry.getId())).forEach(this::store));
+                if (!books.isEmpty()) {
+                    keyset = keyset.after(books.get(books.size() - 1));
+                }
+            } while (books.size() == BUILD_BATCH_SIZE);
+        } finally {
+            writeLocked(() -> touched = null);
+        }
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean canSort(Sort sort) {
+        return sort.stream().allMatch(order -> "id".equals(order.getProperty()));
+    }
+
+    public void put(Book book) {
+        if (!enabled || book.getId() == null) {
+            return;
+        }
+        Entry entry = entry(book);
+        writeLocked(() -> {
+            if (touched != null) {
+                touched.add(entry.getId());
+            }
+            store(entry);
+        });
+    }
+
+    public void remove(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        writeLocked(() -> {
+            if (touched != null) {
+                touched.add(id);
+            }
+            Entry previous = entries.remove(id);
+            if (previous != null) {
+                unindex(previous);
+            }
+        });
+    }
+
+    public List<Entry> search(String title, String author, Sort sort) {
+        String titleQuery = normalize(title);
+        String authorQuery = normalize(author);
+        List<Entry> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(titleQuery, authorQuery)) {
+                Entry entry = entries.get(id);
+                if (entry != null && contains(entry.searchTitle, titleQuery) && contains(entry.searchAuthor, authorQuery)) {
+                    matches.add(entry);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(comparator(sort));
+        return matches;
+    }
+
+    private void writeLocked(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void store(Entry entry) {
+        Entry previous = entries.put(entry.getId(), entry);
+        if (previous != null) {
+            unindex(previous);
+        }
+        index(titleGrams, entry.getId(), entry.searchTitle);
+        index(authorGrams, entry.getId(), entry.searchAuthor);
+    }
+
+    private Collection<Long> candidates(String titleQuery, String authorQuery) {
+        Set<Long> byTitle = lookup(titleGrams, titleQuery);
+        Set<Long> byAuthor = lookup(authorGrams, authorQuery);
+        if (byTitle == null && byAuthor == null) {
+            return entries.keySet();
+        }
+        if (byTitle == null || byAuthor == null) {
+            return byTitle == null ? byAuthor : byTitle;
+        }
+        return intersect(Arrays.asList(byTitle, byAuthor));
+    }
+
+    // null means the query is too short to narrow anything down
+    private Set<Long> lookup(Map<String, Set<Long>> grams, String query) {
+        if (query == null || query.length() < GRAM) {
+            return null;
+        }
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> ids = grams.get(gram);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            postings.add(ids);
+        }
+        return intersect(postings);
+    }
+
+    private Set<Long> intersect(List<Set<Long>> postings) {
+        List<Set<Long>> sorted = new ArrayList<>(postings);
+        sorted.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(sorted.get(0));
+        for (int i = 1; i < sorted.size() && !result.isEmpty(); i++) {
+            result.retainAll(sorted.get(i));
+        }
+        return result;
+    }
+
+    private void index(Map<String, Set<Long>> grams, Long id, String value) {
+        for (String gram : grams(value)) {
+            grams.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void unindex(Entry entry) {
+        unindex(titleGrams, entry.getId(), entry.searchTitle);
+        unindex(authorGrams, entry.getId(), entry.searchAuthor);
+    }
+
+    private void unindex(Map<String, Set<Long>> grams, Long id, String value) {
+        for (String gram : grams(value)) {
+            Set<Long> ids = grams.get(gram);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                grams.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String value) {
+        if (value == null || value.length() < GRAM) {
+            return Collections.emptySet();
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static boolean contains(String value, String query) {
+        return query == null || (value != null && value.contains(query));
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Entry entry(Book book) {
+        return new Entry(book.getId(), normalize(book.getTitle()), normalize(book.getAuthor()));
+    }
+
+    private static Comparator<Entry> comparator(Sort sort) {
+        Sort.Order byId = sort.getOrderFor("id");
+        Comparator<Entry> comparator = Comparator.comparing(Entry::getId);
+        return byId == null || byId.isAscending() ? comparator : comparator.reversed();
+    }
+
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Entry {
+        private final Long id;
+        @Getter(AccessLevel.NONE)
+        private final String searchTitle;
+        @Getter(AccessLevel.NONE)
+        private final String searchAuthor;
+    }
+}
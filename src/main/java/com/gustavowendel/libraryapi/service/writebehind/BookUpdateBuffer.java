@@ -0,0 +1,188 @@
+package com.gustavowendel.libraryapi.service.writebehind;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.repository.BookRepository;
+import com.gustavowendel.libraryapi.model.entity.repository.BookUpdate;
+import com.gustavowendel.libraryapi.model.entity.repository.BookVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/*
+ * Write-behind for title/author edits. Updates to the same book within a window replace each
+ * other in memory and only the last one is written, all pending books in one batched UPDATE.
+ * Until then reads by id go through the overlay. Every edit still bumps the version, so ETags
+ * and If-Match behave as with direct writes; the flush checks the row still has the version the
+ * first buffered edit was based on and drops the edit otherwise, telling the conflict listener
+ * so whatever was derived from the dropped edit can be reloaded. Pending edits are flushed on
+ * shutdown, but a crash loses up to one window of them.
+ */
+@Slf4j
+@Component
+public class BookUpdateBuffer {
+
+    private final BookRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration window;
+
+    private final Map<Long, BookUpdate> pending = new ConcurrentHashMap<>();
+    private volatile Consumer<Book> flushListener = book -> { };
+    private volatile Consumer<Long> conflictListener = id -> { };
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "book-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BookUpdateBuffer(BookRepository repository, PlatformTransactionManager transactionManager,
+                            @Value("${library.books.write-behind.enabled:false}") boolean enabled,
+                            @Value("${library.books.write-behind.window:200ms}") Duration window) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.window = window;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Called with each book once its buffered update is in the database.
+    public void onFlush(Consumer<Book> listener) {
+        this.flushListener = listener;
+    }
+
+    // Called with the id of each book whose buffered update was dropped on a version conflict.
+    public void onConflict(Consumer<Long> listener) {
+        this.conflictListener = listener;
+    }
+
+    public Book update(Book book) {
+        if (book.getVersion() == null) {
+            throw new IllegalArgumentException("Book version can't be null.");
+        }
+        BookUpdate update = pending.compute(book.getId(), (id, current) -> {
+            long version = current == null ? book.getVersion() : current.getBook().getVersion();
+            if (book.getVersion() != version) {
+                throw new ObjectOptimisticLockingFailureException(Book.class, id);
+            }
+            Long expected = current == null ? book.getVersion() : current.getExpectedVersion();
+            Book next = copy(book);
+            next.setVersion(version + 1);
+            next.setLastModified(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+            return new BookUpdate(next, expected);
+        });
+        return copy(update.getBook());
+    }
+
+    public Book overlay(Book book) {
+        BookUpdate update = pending.get(book.getId());
+        return update == null ? book : copy(update.getBook());
+    }
+
+    public Optional<Book> get(Long id) {
+        BookUpdate update = pending.get(id);
+        return update == null ? Optional.empty() : Optional.of(copy(update.getBook()));
+    }
+
+    public Optional<BookVersion> getVersion(Long id) {
+        BookUpdate update = pending.get(id);
+        return update == null ? Optional.empty() : Optional.of(BookVersion.of(update.getBook()));
+    }
+
+    public void discard(Long id) {
+        pending.remove(id);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            flusher.scheduleWithFixedDelay(this::flushQuietly, window.toMillis(), window.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Waits for a running flush and writes whatever is still pending.
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(1, TimeUnit.MINUTES);
+        flush();
+        if (!pending.isEmpty()) {
+            log.error("Stopped with {} book updates not written", pending.size());
+        }
+    }
+
+    /*
+     * Entries stay visible while they are written. An edit that arrives meanwhile replaces the
+     * entry and is rebased on the version just written, so it goes out on the next flush.
+     */
+    public List<Book> flush() {
+        List<BookUpdate> updates = new ArrayList<>(pending.values());
+        if (updates.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Long> conflicts = new HashSet<>(transactionTemplate.execute(status -> repository.updateAll(updates)));
+
+        List<Book> written = new ArrayList<>(updates.size());
+        List<Long> dropped = new ArrayList<>(conflicts.size());
+        for (BookUpdate update : updates) {
+            Book book = update.getBook();
+            boolean conflict = conflicts.contains(book.getId());
+            if (conflict) {
+                log.warn("Dropped buffered update of book {}: it was changed elsewhere", book.getId());
+                dropped.add(book.getId());
+            } else {
+                written.add(book);
+            }
+            pending.computeIfPresent(book.getId(), (id, current) -> {
+                if (current == update || conflict) {
+                    return null;
+                }
+                return new BookUpdate(current.getBook(), book.getVersion());
+            });
+        }
+        written.forEach(flushListener);
+        dropped.forEach(conflictListener);
+        return written;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.error("Failed to write {} buffered book updates, retrying", pending.size(), ex);
+        }
+    }
+
+    private static Book copy(Book book) {
+        return Book.builder()
+                .id(book.getId())
+                .title(book.getTitle())
+                .author(book.getAuthor())
+                .isbn(book.getIsbn())
+                .version(book.getVersion())
+                .lastModified(book.getLastModified())
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+create sequence book_sequence start with 1 increment by 50;
+create sequence loan_sequence start with 1 increment by 50;
+
+create table book (
+    id bigint not null,
+    title varchar(255),
+    author varchar(255),
+    isbn varchar(255),
+    primary key (id),
+    constraint uk_book_isbn unique (isbn)
+);
+
+create index idx_book_title_id on book (title, id);
+create index idx_book_author_id on book (author, id);
+
+create table loan (
+    id bigint not null,
+    isbn varchar(255),
+    customer varchar(255),
+    customer_email varchar(255),
+    book_id bigint,
+    loan_date date,
+    returned boolean,
+    active_book_id bigint,
+    primary key (id),
+    constraint uk_loan_active_book unique (active_book_id),
+    constraint fk_loan_book foreign key (book_id) references book (id)
+);
+
+create index idx_loan_date_id on loan (loan_date, id);
+create index idx_loan_customer_date_id on loan (customer, loan_date, id);
+
+create table job_checkpoint (
+    name varchar(255) not null,
+    last_loan_date date,
+    last_loan_id bigint,
+    primary key (name)
+);
@@ -0,0 +1,2 @@
+alter table book add column version bigint default 0 not null;
+alter table book add column last_modified timestamp(6) with time zone;
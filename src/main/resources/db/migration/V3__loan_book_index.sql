@@ -0,0 +1 @@
+create index idx_loan_book_id on loan (book_id);
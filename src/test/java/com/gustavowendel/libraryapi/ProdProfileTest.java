@@ -0,0 +1,64 @@
+package com.gustavowendel.libraryapi;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:library-prod;QUERY_CACHE_SIZE=64")
+@ActiveProfiles("prod")
+@AutoConfigureMockMvc
+public class ProdProfileTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Test
+    @DisplayName("Deve criar o esquema pelas migrações e validá-lo contra as entidades")
+    public void migratedSchemaTest() {
+        Integer migrations = jdbc.queryForObject(
+                "select count(*) from \"flyway_schema_history\" where \"success\" = true", Integer.class);
+
+        assertThat(migrations).isGreaterThan(0);
+    }
+
+    @Test
+    @DisplayName("Deve expor a saturação e a espera do pool de conexões")
+    public void poolMetricsTest() {
+        assertThat(registry.get("hikaricp.connections.max").tag("pool", "library").gauge().value()).isEqualTo(20);
+        assertThat(registry.find("hikaricp.connections.pending").tag("pool", "library").gauge()).isNotNull();
+        assertThat(registry.find("hikaricp.connections.acquire").tag("pool", "library").timer()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Deve cadastrar um livro ignorando o id enviado no corpo da requisição")
+    public void createBookWithIdTest() throws Exception {
+        //Cenário
+        String json = "{\"id\":777,\"title\":\"Aventuras\",\"author\":\"Artur\",\"isbn\":\"P-777\"}";
+
+        //Execução e Verificações
+        mvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("id").isNumber())
+                .andExpect(jsonPath("id").value(not(777)))
+                .andExpect(jsonPath("isbn").value("P-777"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.gustavowendel.libraryapi;
+
+import com.gustavowendel.libraryapi.api.dto.BookDTO;
+import com.gustavowendel.libraryapi.api.dto.LoanDTO;
+import com.gustavowendel.libraryapi.api.dto.ReturnedLoanDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.DispatcherHandler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:library-reactive")
+@ActiveProfiles({"test", "reactive"})
+public class ReactiveProfileTest {
+
+    @Autowired
+    WebTestClient client;
+
+    @Autowired
+    ApplicationContext context;
+
+    @Test
+    @DisplayName("Deve servir a API pelo WebFlux no perfil reactive")
+    public void reactiveStackTest() {
+        assertThat(context.getBeanNamesForType(DispatcherHandler.class)).isNotEmpty();
+        assertThat(context.containsBean("bookController")).isFalse();
+        assertThat(context.containsBean("reactiveBookController")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve cadastrar, emprestar, buscar e devolver um livro pela API reativa")
+    public void loanFlowTest() {
+        //Cenário
+        BookDTO book = client.post().uri("/api/books")
+                .bodyValue(BookDTO.builder().title("Aventuras").author("Artur").isbn("R-123").build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BookDTO.class).returnResult().getResponseBody();
+        LoanDTO loan = LoanDTO.builder().isbn("R-123").customer("Fulano").email("fulano@email.com").build();
+
+        //Execução
+        Long loanId = client.post().uri("/api/loans").bodyValue(loan)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Long.class).returnResult().getResponseBody();
+
+        //Verificações
+        assertThat(book.getId()).isNotNull();
+        client.get().uri("/api/books/{id}", book.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("isbn").isEqualTo("R-123");
+        client.post().uri("/api/loans").bodyValue(loan).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("errors[0]").isEqualTo("Book already loaned");
+        client.get().uri("/api/loans?isbn=R-123&customer=Fulano&page=0&size=10").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("totalElements").isEqualTo(1)
+                .jsonPath("content[0].id").isEqualTo(loanId)
+                .jsonPath("content[0].book.title").isEqualTo("Aventuras");
+        client.patch().uri("/api/loans/{id}", loanId).bodyValue(ReturnedLoanDTO.builder().returned(true).build())
+                .exchange()
+                .expectStatus().isOk();
+        client.post().uri("/api/loans").bodyValue(loan).exchange()
+                .expectStatus().isCreated();
+    }
+
+    @Test
+    @DisplayName("Deve responder 404 e 400 como a API servlet")
+    public void errorsTest() {
+        client.get().uri("/api/books/{id}", Long.MAX_VALUE).exchange()
+                .expectStatus().isNotFound();
+        client.post().uri("/api/books").bodyValue(new BookDTO()).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("errors.length()").isEqualTo(3);
+        client.post().uri("/api/loans").bodyValue(LoanDTO.builder().isbn("inexistente").customer("Fulano").build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("errors[0]").isEqualTo("Book not found for passed isbn");
+    }
+}
@@ -0,0 +1,104 @@
+package com.gustavowendel.libraryapi.api.format;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gustavowendel.libraryapi.api.dto.BookDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class BookFormatTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Deve ler campos CSV com aspas, vírgulas e quebras de linha")
+    public void readQuotedCsvTest() throws IOException {
+        //Cenário
+        BookReader reader = BookFormat.CSV.reader(stream(
+                "\uFEFFTitle,Author,ISBN\r\n\"O \"\"rei\"\", parte 1\",\"Artur\nde Camelot\",001\n\nSem autor,,002"),
+                objectMapper);
+
+        //Execução
+        BookDTO first = reader.read();
+        BookDTO second = reader.read();
+        BookDTO end = reader.read();
+
+        //Verificações
+        assertThat(first).isEqualTo(BookDTO.builder().title("O \"rei\", parte 1").author("Artur\nde Camelot").isbn("001").build());
+        assertThat(second).isEqualTo(BookDTO.builder().title("Sem autor").author("").isbn("002").build());
+        assertThat(end).isNull();
+        assertThat(reader.getRecordNumber()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve continuar a leitura NDJSON após um registro malformado")
+    public void readMalformedNdjsonTest() throws IOException {
+        BookReader reader = BookFormat.NDJSON.reader(stream("{\"title\":\n{\"title\":\"Ok\"}\n"), objectMapper);
+
+        Throwable exception = catchThrowable(reader::read);
+        BookDTO next = reader.read();
+
+        assertThat(exception).isInstanceOf(InvalidRecordException.class);
+        assertThat(next.getTitle()).isEqualTo("Ok");
+        assertThat(reader.getRecordNumber()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar uma linha NDJSON longa demais sem guardá-la e seguir para a próxima")
+    public void readOverlongNdjsonTest() throws IOException {
+        BookReader reader = new NdjsonBookReader(stream("{\"title\":\"" + "x".repeat(100) + "\"}\r\n{\"title\":\"Ok\"}\r\n"),
+                objectMapper, 32);
+
+        Throwable exception = catchThrowable(reader::read);
+        BookDTO next = reader.read();
+
+        assertThat(exception).isInstanceOf(InvalidRecordException.class).hasMessageContaining("longer than 32");
+        assertThat(next.getTitle()).isEqualTo("Ok");
+        assertThat(reader.getRecordNumber()).isEqualTo(2);
+        assertThat(reader.read()).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar um registro CSV com aspas sem fechamento ao atingir o limite e seguir na próxima linha")
+    public void readUnterminatedQuoteCsvTest() throws IOException {
+        BookReader reader = new CsvBookReader(stream(
+                "title,author,isbn\n\"Sem fim,Artur,001\n" + "y".repeat(40) + "\nOk,Artur,002\n"), 32);
+
+        Throwable exception = catchThrowable(reader::read);
+        BookDTO next = reader.read();
+
+        assertThat(exception).isInstanceOf(InvalidRecordException.class).hasMessageContaining("longer than 32");
+        assertThat(next).isEqualTo(BookDTO.builder().title("Ok").author("Artur").isbn("002").build());
+        assertThat(reader.getRecordNumber()).isEqualTo(2);
+        assertThat(reader.read()).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve escrever e ler de volta os mesmos livros")
+    public void roundTripTest() throws IOException {
+        BookDTO book = BookDTO.builder().id(1L).title("As aventuras, \"parte\" 1").author("Artur").isbn("001").build();
+
+        for (BookFormat format : BookFormat.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            BookWriter writer = format.writer(out, objectMapper);
+            writer.write(book);
+            writer.flush();
+
+            BookDTO read = format.reader(new ByteArrayInputStream(out.toByteArray()), objectMapper).read();
+
+            assertThat(read.getTitle()).isEqualTo(book.getTitle());
+            assertThat(read.getIsbn()).isEqualTo(book.getIsbn());
+        }
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,56 @@
+package com.gustavowendel.libraryapi.api.mapper;
+
+import com.gustavowendel.libraryapi.api.dto.BookDTO;
+import com.gustavowendel.libraryapi.model.entity.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookMapperTest {
+
+    BookMapper mapper = new BookMapper();
+
+    @Test
+    @DisplayName("Deve converter um dto em entidade")
+    public void toEntityTest() {
+        //Cenário
+        BookDTO dto = BookDTO.builder().id(1L).title("As aventuras").author("Artur").isbn("001").build();
+
+        //Execução
+        Book book = mapper.toEntity(dto);
+
+        //Verificações
+        assertThat(book).isEqualTo(Book.builder().id(1L).title("As aventuras").author("Artur").isbn("001").build());
+    }
+
+    @Test
+    @DisplayName("Deve manter nulos os campos não informados no filtro")
+    public void toEntityWithNullValuesTest() {
+        Book book = mapper.toEntity(BookDTO.builder().title("aventuras").build());
+
+        assertThat(book.getId()).isNull();
+        assertThat(book.getAuthor()).isNull();
+        assertThat(book.getIsbn()).isNull();
+        assertThat(book.getTitle()).isEqualTo("aventuras");
+    }
+
+    @Test
+    @DisplayName("Deve converter uma lista de entidades em dtos")
+    public void toDtoListTest() {
+        //Cenário
+        Book first = Book.builder().id(1L).title("As aventuras").author("Artur").isbn("001").build();
+        Book second = Book.builder().id(2L).title("O retorno").author("Fulano").isbn("002").build();
+
+        //Execução
+        List<BookDTO> list = mapper.toDtoList(Arrays.asList(first, second));
+
+        //Verificações
+        assertThat(list).containsExactly(
+                BookDTO.builder().id(1L).title("As aventuras").author("Artur").isbn("001").build(),
+                BookDTO.builder().id(2L).title("O retorno").author("Fulano").isbn("002").build());
+    }
+}
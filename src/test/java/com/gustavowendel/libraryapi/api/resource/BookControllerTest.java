@@ -4,6 +4,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gustavowendel.libraryapi.api.dto.BookDTO;
 import com.gustavowendel.libraryapi.exception.BusinessException;
 import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.repository.BookKeyset;
+import com.gustavowendel.libraryapi.model.entity.repository.BookVersion;
 import com.gustavowendel.libraryapi.service.BookService;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
@@ -18,20 +20,34 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -115,6 +131,51 @@ class BookControllerTest {
                 .andExpect( jsonPath("errors[0]").value(mensagemErro));
     }
 
+    @Test
+    @DisplayName("Deve criar livros em lote informando os isbns duplicados")
+    void createBookBatchTest() throws Exception {
+
+        BookDTO first = BookDTO.builder().author("Artur").title("As aventuras").isbn("001").build();
+        BookDTO duplicated = BookDTO.builder().author("Fulano").title("O retorno").isbn("002").build();
+        String json = new ObjectMapper().writeValueAsString(Arrays.asList(first, duplicated));
+
+        Book savedBook = Book.builder().id(1L).author("Artur").title("As aventuras").isbn("001").build();
+        BDDMockito.given(service.saveAll(Mockito.anyList())).willReturn(Arrays.asList(savedBook));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(BOOK_API.concat("/batch"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc.perform(request)
+                .andExpect( status().isCreated() )
+                .andExpect( jsonPath("created", hasSize(1)) )
+                .andExpect( jsonPath("created[0].id").value(1L) )
+                .andExpect( jsonPath("created[0].isbn").value("001") )
+                .andExpect( jsonPath("duplicatedIsbns", hasSize(1)) )
+                .andExpect( jsonPath("duplicatedIsbns[0]").value("002") );
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de validação quando algum livro do lote for inválido")
+    void createInvalidBookBatchTest() throws Exception {
+
+        String json = new ObjectMapper().writeValueAsString(Arrays.asList(createNewBook(), new BookDTO()));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(BOOK_API.concat("/batch"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc.perform(request)
+                .andExpect( status().isBadRequest() )
+                .andExpect( jsonPath("errors", hasSize(3)) );
+
+        Mockito.verify(service, Mockito.never()).saveAll(Mockito.anyList());
+    }
+
     @Test
     @DisplayName("Deve obter informações de um livro")
     void getBookDetailsTest() throws Exception {
@@ -144,6 +205,76 @@ class BookControllerTest {
                 .andExpect( jsonPath("isbn").value(createNewBook().getIsbn()) );
     }
 
+    @Test
+    @DisplayName("Deve informar a versão do livro nos cabeçalhos ETag e Last-Modified")
+    void getBookVersionHeadersTest() throws Exception {
+        Instant modified = Instant.parse("2020-01-01T10:00:00Z");
+        Book book = Book.builder().id(1L).title("As aventuras").author("Artur").isbn("001")
+                .version(3L).lastModified(modified).build();
+        BDDMockito.given(service.getById(1L)).willReturn(Optional.of(book));
+
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1")))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, modified.toEpochMilli()));
+        Mockito.verify(service, Mockito.never()).getVersion(Mockito.anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve responder 304 sem carregar o livro quando a versão não mudou")
+    void getBookNotModifiedTest() throws Exception {
+        //Cenário
+        Instant modified = Instant.parse("2020-01-01T10:00:00Z");
+        BDDMockito.given(service.getVersion(1L)).willReturn(Optional.of(new BookVersion(1L, 3L, modified)));
+
+        //Execução
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1")).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1"))
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, DateTimeFormatter.RFC_1123_DATE_TIME.format(modified.atZone(ZoneOffset.UTC))))
+                .andExpect(status().isNotModified());
+
+        //Verificações
+        Mockito.verify(service, Mockito.never()).getById(Mockito.anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve retornar o livro quando a versão informada estiver desatualizada")
+    void getBookModifiedTest() throws Exception {
+        Book book = Book.builder().id(1L).title("As aventuras").author("Artur").isbn("001").version(4L).build();
+        BDDMockito.given(service.getVersion(1L)).willReturn(Optional.of(new BookVersion(1L, 4L, null)));
+        BDDMockito.given(service.getById(1L)).willReturn(Optional.of(book));
+
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1")).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("isbn").value("001"));
+    }
+
+    @Test
+    @DisplayName("Deve recusar a atualização quando o If-Match não corresponder à versão atual")
+    void updateBookPreconditionFailedTest() throws Exception {
+        //Cenário
+        String json = new ObjectMapper().writeValueAsString(createNewBook());
+        Book book = Book.builder().id(1L).title("some title").author("some author").isbn("321").version(4L).build();
+        BDDMockito.given(service.getById(1L)).willReturn(Optional.of(book));
+        BDDMockito.given(service.update(book)).willReturn(Book.builder().id(1L).isbn("321").version(5L).build());
+
+        //Execução
+        mvc.perform(MockMvcRequestBuilders.put(BOOK_API.concat("/1")).header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content(json).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("errors[0]").value("Book was modified since it was read"));
+        mvc.perform(MockMvcRequestBuilders.put(BOOK_API.concat("/1")).header(HttpHeaders.IF_MATCH, "\"4\"")
+                        .content(json).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+
+        //Verificações
+        Mockito.verify(service, Mockito.times(1)).update(book);
+    }
+
     @Test
     @DisplayName("Deve retornar resource not found quando o livro procurado não existir")
     void bookNotFoundTest() throws Exception {
@@ -163,8 +294,7 @@ class BookControllerTest {
     @DisplayName("Deve deletar um livro")
     void deleteBookTest() throws Exception {
         //Cenário (given)
-        BDDMockito.given( service.getById(Mockito.anyLong()))
-                .willReturn(Optional.of(Book.builder().id(1L).build()) );
+        BDDMockito.given( service.deleteById(1L)).willReturn(true);
 
         //Execução (when)
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
@@ -173,13 +303,14 @@ class BookControllerTest {
 
         mvc.perform(request)
                 .andExpect(status().isNoContent());
+        Mockito.verify(service, Mockito.never()).getById(Mockito.anyLong());
     }
 
     @Test
     @DisplayName("Deve retornar resource not found quando não encontrar o livro para deletar")
     void deleteInexistentBookTest() throws Exception {
         //Cenário (given)
-        BDDMockito.given( service.getById(Mockito.anyLong())).willReturn(Optional.empty() );
+        BDDMockito.given( service.deleteById(Mockito.anyLong())).willReturn(false);
 
         //Execução (when)
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
@@ -189,6 +320,65 @@ class BookControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Deve deletar livros em lote informando quantos foram removidos")
+    void deleteBooksTest() throws Exception {
+        BDDMockito.given(service.deleteAllById(Mockito.anyCollection())).willReturn(2);
+
+        mvc.perform(MockMvcRequestBuilders.delete(BOOK_API).param("ids", "1,2,3,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("requested").value(3))
+                .andExpect(jsonPath("deleted").value(2));
+        mvc.perform(MockMvcRequestBuilders.delete(BOOK_API).content("[4, 5]").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("requested").value(2));
+        mvc.perform(MockMvcRequestBuilders.delete(BOOK_API))
+                .andExpect(status().isBadRequest());
+        Mockito.verify(service).deleteAllById(new HashSet<>(Arrays.asList(1L, 2L, 3L)));
+        Mockito.verify(service).deleteAllById(new HashSet<>(Arrays.asList(4L, 5L)));
+    }
+
+    @Test
+    @DisplayName("Deve atualizar um livro sem carregá-lo quando o cliente pedir return=minimal")
+    void updateBookMinimalTest() throws Exception {
+        //Cenário
+        String json = new ObjectMapper().writeValueAsString(createNewBook());
+        BDDMockito.given(service.updateById(1L, "As aventuras", "Artur", 3L)).willReturn(true);
+        BDDMockito.given(service.updateById(1L, "As aventuras", "Artur", null)).willReturn(true);
+
+        //Execução
+        mvc.perform(MockMvcRequestBuilders.put(BOOK_API.concat("/1")).header("Prefer", "return=minimal")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"").content(json).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("Preference-Applied", "return=minimal"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(content().string(""));
+        mvc.perform(MockMvcRequestBuilders.put(BOOK_API.concat("/1")).header("Prefer", "return=minimal")
+                        .content(json).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        //Verificações
+        Mockito.verify(service, Mockito.never()).getById(Mockito.anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve distinguir livro inexistente de versão desatualizada na atualização com return=minimal")
+    void updateBookMinimalFailureTest() throws Exception {
+        String json = new ObjectMapper().writeValueAsString(createNewBook());
+        BDDMockito.given(service.updateById(Mockito.anyLong(), Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+                .willReturn(false);
+        BDDMockito.given(service.getVersion(1L)).willReturn(Optional.of(new BookVersion(1L, 5L, null)));
+        BDDMockito.given(service.getVersion(2L)).willReturn(Optional.empty());
+
+        mvc.perform(MockMvcRequestBuilders.put(BOOK_API.concat("/1")).header("Prefer", "return=minimal")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"").content(json).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+        mvc.perform(MockMvcRequestBuilders.put(BOOK_API.concat("/2")).header("Prefer", "return=minimal")
+                        .content(json).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("Deve atualizar um livro")
     void updateBookTest() throws Exception {
@@ -225,6 +415,7 @@ class BookControllerTest {
         String json = new ObjectMapper().writeValueAsString(createNewBook());
         BDDMockito.given( service.getById(Mockito.anyLong()))
                 .willReturn(Optional.of(Book.builder().id(1L).title("some title").author("some author").isbn("321").build()) );
+        BDDMockito.given(service.update(Mockito.any(Book.class))).willAnswer(invocation -> invocation.getArgument(0));
 
         //Execução (when)
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
@@ -270,6 +461,198 @@ class BookControllerTest {
         ;
     }
 
+    @Test
+    @DisplayName("Deve filtrar livros sem calcular o total quando count=none")
+    public void findBooksWithoutCountTest() throws Exception {
+        Book book = Book.builder().id(1L).author("Artur").title("As aventuras").isbn("001").build();
+
+        BDDMockito.given( service.findWithoutCount(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+                .willReturn(new SliceImpl<>(Arrays.asList(book), PageRequest.of(0, 1), true));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?title=aventuras&page=0&size=1&count=none"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect( jsonPath("content", Matchers.hasSize(1) ))
+                .andExpect( jsonPath("last").value(false))
+                .andExpect( jsonPath("totalElements").doesNotExist());
+
+        Mockito.verify(service, Mockito.never()).find(Mockito.any(Book.class), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro ao informar um modo de contagem inválido")
+    public void findBooksWithInvalidCountModeTest() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?count=sometimes"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors", Matchers.hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("Deve exportar todos os livros em NDJSON")
+    public void exportBooksNdjsonTest() throws Exception {
+        //Cenário
+        mockExport(Book.builder().id(1L).author("Artur").title("As aventuras").isbn("001").build(),
+                Book.builder().id(2L).author("Artur").title("O retorno").isbn("002").build());
+
+        //Execução
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/export")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //Verificações
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"id\":1,\"title\":\"As aventuras\",\"author\":\"Artur\",\"isbn\":\"001\"}\n" +
+                        "{\"id\":2,\"title\":\"O retorno\",\"author\":\"Artur\",\"isbn\":\"002\"}\n"));
+    }
+
+    @Test
+    @DisplayName("Deve exportar todos os livros em CSV escapando os campos")
+    public void exportBooksCsvTest() throws Exception {
+        mockExport(Book.builder().id(1L).author("Artur, o \"rei\"").title("As aventuras").isbn("001").build());
+
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/export?format=csv")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=books.csv"))
+                .andExpect(content().string("id,title,author,isbn\r\n1,As aventuras,\"Artur, o \"\"rei\"\"\",001\r\n"));
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro ao exportar em um formato não suportado")
+    public void exportBooksInvalidFormatTest() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/export?format=xml")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors", Matchers.hasSize(1)));
+
+        Mockito.verify(service, Mockito.never()).export(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Deve importar livros em NDJSON resumindo aceitos, duplicados e inválidos")
+    public void importBooksNdjsonTest() throws Exception {
+        //Cenário
+        String body = "{\"title\":\"As aventuras\",\"author\":\"Artur\",\"isbn\":\"001\"}\n" +
+                "{\"title\":\"O retorno\",\"author\":\"Artur\",\"isbn\":\"002\"}\n" +
+                "\n" +
+                "{\"title\":\"\",\"author\":\"Artur\",\"isbn\":\"003\"}\n" +
+                "{\"title\":\"Quebrado\"\n";
+        BDDMockito.given(service.saveAll(Mockito.anyList()))
+                .willAnswer(invocation -> ((List<Book>) invocation.getArgument(0)).subList(0, 1));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(BOOK_API.concat("/import"))
+                .contentType("application/x-ndjson")
+                .content(body);
+
+        //Execução e Verificações
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("accepted").value(1))
+                .andExpect(jsonPath("duplicated").value(1))
+                .andExpect(jsonPath("invalid").value(2))
+                .andExpect(jsonPath("errors[0]").value("record 3: title: must not be empty"))
+                .andExpect(jsonPath("errors[1]").value(Matchers.startsWith("record 4: malformed json")));
+
+        Mockito.verify(service, Mockito.times(1)).saveAll(Mockito.anyList());
+    }
+
+    @Test
+    @DisplayName("Deve recusar um registro nulo no meio do NDJSON e continuar a importação")
+    public void importBooksNdjsonNullRecordTest() throws Exception {
+        //Cenário
+        String body = "{\"title\":\"As aventuras\",\"author\":\"Artur\",\"isbn\":\"001\"}\n" +
+                "null\n" +
+                "[1]\n" +
+                "{\"title\":\"O retorno\",\"author\":\"Artur\",\"isbn\":\"002\"}\n";
+        BDDMockito.given(service.saveAll(Mockito.anyList())).willAnswer(invocation -> invocation.getArgument(0));
+
+        //Execução e Verificações
+        mvc.perform(MockMvcRequestBuilders.post(BOOK_API.concat("/import")).contentType("application/x-ndjson").content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("accepted").value(2))
+                .andExpect(jsonPath("invalid").value(2))
+                .andExpect(jsonPath("errors[0]").value("record 2: not a json object"))
+                .andExpect(jsonPath("errors[1]").value(Matchers.startsWith("record 3: malformed json")));
+    }
+
+    @Test
+    @DisplayName("Deve importar livros em CSV")
+    public void importBooksCsvTest() throws Exception {
+        String body = "isbn,title,author\r\n001,\"As aventuras, parte 1\",Artur\r\n";
+        BDDMockito.given(service.saveAll(Mockito.anyList())).willAnswer(invocation -> invocation.getArgument(0));
+
+        mvc.perform(MockMvcRequestBuilders.post(BOOK_API.concat("/import?format=csv")).contentType("text/csv").content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("accepted").value(1))
+                .andExpect(jsonPath("invalid").value(0));
+
+        Mockito.verify(service).saveAll(Mockito.argThat(books -> books.size() == 1
+                && "As aventuras, parte 1".equals(books.get(0).getTitle()) && "001".equals(books.get(0).getIsbn())));
+    }
+
+    @Test
+    @DisplayName("Deve recusar a importação de um CSV sem as colunas obrigatórias")
+    public void importBooksCsvMissingColumnTest() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post(BOOK_API.concat("/import?format=csv")).contentType("text/csv").content("isbn,title\r\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("Missing csv column: author"));
+    }
+
+    @Test
+    @DisplayName("Deve paginar livros por cursor retornando o token da próxima fatia")
+    public void seekBooksTest() throws Exception {
+        Book book = Book.builder().id(7L).author("Artur").title("As aventuras").isbn("001").build();
+        BookKeyset keyset = BookKeyset.first(Sort.by("title"));
+
+        BDDMockito.given( service.findAfter(Mockito.any(Book.class), Mockito.eq(keyset), Mockito.eq(1)) )
+                .willReturn(new SliceImpl<>(Arrays.asList(book), PageRequest.of(0, 1), true));
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?after=&size=1&sort=title&author=Artur"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect( jsonPath("content", Matchers.hasSize(1)) )
+                .andExpect( jsonPath("content[0].id").value(7L) )
+                .andExpect( jsonPath("hasNext").value(true) )
+                .andExpect( jsonPath("next").value(keyset.after(book).encode()) )
+                .andExpect( jsonPath("totalElements").doesNotExist() );
+    }
+
+    @Test
+    @DisplayName("Deve retornar bad request quando o cursor for inválido")
+    public void seekBooksWithInvalidCursorTest() throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?after=invalido"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mvc.perform(request)
+                .andExpect(status().isBadRequest());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockExport(Book... books) {
+        Mockito.doAnswer(invocation -> {
+            Consumer<Book> action = invocation.getArgument(0);
+            Arrays.asList(books).forEach(action);
+            return null;
+        }).when(service).export(Mockito.any());
+    }
+
     private BookDTO createNewBook() {
         return BookDTO.builder().author("Artur").title("As aventuras").isbn("001").build();
     }
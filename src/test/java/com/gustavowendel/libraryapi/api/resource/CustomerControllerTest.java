@@ -0,0 +1,70 @@
+package com.gustavowendel.libraryapi.api.resource;
+
+import com.gustavowendel.libraryapi.model.entity.repository.CustomerLoan;
+import com.gustavowendel.libraryapi.service.LoanService;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = CustomerController.class)
+@AutoConfigureMockMvc
+public class CustomerControllerTest {
+
+    private static final String CUSTOMER_API = "/api/customers";
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    LoanService loanService;
+
+    @Test
+    @DisplayName("Deve listar os livros emprestados pelo cliente")
+    public void findActiveLoansTest() throws Exception {
+        //Cenário
+        CustomerLoan loan = Mockito.mock(CustomerLoan.class);
+        BDDMockito.given(loan.getId()).willReturn(1L);
+        BDDMockito.given(loan.getLoanDate()).willReturn(LocalDate.of(2020, 1, 10));
+        BDDMockito.given(loan.getIsbn()).willReturn("123");
+        BDDMockito.given(loan.getTitle()).willReturn("As aventuras");
+        BDDMockito.given(loan.getAuthor()).willReturn("Artur");
+
+        BDDMockito.given( loanService.getCustomerLoans(Mockito.eq("Fulano"), Mockito.eq(true), Mockito.any(Pageable.class)) )
+                .willReturn(new PageImpl<>(Collections.singletonList(loan), PageRequest.of(0, 10), 1));
+
+        //Execução e Verificações
+        mvc.perform(
+                MockMvcRequestBuilders.get(CUSTOMER_API.concat("/Fulano/loans?active=true&page=0&size=10"))
+                        .accept(MediaType.APPLICATION_JSON)
+        )
+                .andExpect( status().isOk() )
+                .andExpect( jsonPath("content", Matchers.hasSize(1)) )
+                .andExpect( jsonPath("content[0].id").value(1) )
+                .andExpect( jsonPath("content[0].isbn").value("123") )
+                .andExpect( jsonPath("content[0].title").value("As aventuras") )
+                .andExpect( jsonPath("content[0].returned").value(false) )
+                .andExpect( jsonPath("totalElements").value(1) );
+    }
+}
@@ -2,6 +2,7 @@ package com.gustavowendel.libraryapi.api.resource;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gustavowendel.libraryapi.api.dto.LoanDTO;
+import com.gustavowendel.libraryapi.api.dto.ReturnedLoanDTO;
 import com.gustavowendel.libraryapi.exception.BusinessException;
 import com.gustavowendel.libraryapi.model.entity.Book;
 import com.gustavowendel.libraryapi.model.entity.Loan;
@@ -18,6 +19,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -26,8 +30,11 @@ import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilde
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(SpringExtension.class)
@@ -118,4 +125,111 @@ public class LoanControllerTest {
                 .andExpect( jsonPath("errors[0]").value("Book already loaned") );
     }
 
+
+    @Test
+    @DisplayName("Deve realizar empréstimos em lote informando o resultado de cada item")
+    public void createLoanBatchTest() throws Exception {
+
+        List<LoanDTO> dtos = Arrays.asList(
+                LoanDTO.builder().isbn("123").customer("Fulano").build(),
+                LoanDTO.builder().isbn("456").customer("Ciclano").build(),
+                LoanDTO.builder().isbn("789").customer("Beltrano").build());
+        String json = new ObjectMapper().writeValueAsString(dtos);
+
+        Book available = Book.builder().id(1L).isbn("123").build();
+        Book loaned = Book.builder().id(2L).isbn("456").build();
+        BDDMockito.given( bookService.getBooksByIsbn(Mockito.anyCollection()) )
+                .willReturn(Arrays.asList(available, loaned));
+        BDDMockito.given( loanService.saveAll(Mockito.anyList()) ).willAnswer(invocation -> {
+            List<Loan> loans = invocation.getArgument(0);
+            Loan saved = loans.get(0);
+            saved.setId(10L);
+            return Arrays.asList(saved);
+        });
+
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(LOAN_API.concat("/batch"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mvc.perform(request)
+                .andExpect( status().isOk())
+                .andExpect( jsonPath("$", Matchers.hasSize(3)) )
+                .andExpect( jsonPath("[0].isbn").value("123") )
+                .andExpect( jsonPath("[0].id").value(10L) )
+                .andExpect( jsonPath("[1].isbn").value("456") )
+                .andExpect( jsonPath("[1].error").value("Book already loaned") )
+                .andExpect( jsonPath("[2].isbn").value("789") )
+                .andExpect( jsonPath("[2].error").value("Book not found for passed isbn") );
+    }
+
+    @Test
+    @DisplayName("Deve retornar um livro")
+    public void returnBookTest() throws Exception {
+        //Cenário
+        ReturnedLoanDTO dto = ReturnedLoanDTO.builder().returned(true).build();
+        Loan loan = Loan.builder().id(1L).book(Book.builder().id(1L).build()).build();
+        BDDMockito.given( loanService.getById(Mockito.anyLong()) ).willReturn(Optional.of(loan));
+
+        String json = new ObjectMapper().writeValueAsString(dto);
+
+        //Execução e Verificações
+        mvc.perform(
+                MockMvcRequestBuilders.patch(LOAN_API.concat("/1"))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json)
+        ).andExpect( status().isOk() );
+
+        Mockito.verify(loanService, Mockito.times(1)).update(loan);
+        assertThat(loan.getReturned()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve retornar 404 quando tentar devolver um livro inexistente")
+    public void returnInexistentBookTest() throws Exception {
+        ReturnedLoanDTO dto = ReturnedLoanDTO.builder().returned(true).build();
+        String json = new ObjectMapper().writeValueAsString(dto);
+
+        BDDMockito.given( loanService.getById(Mockito.anyLong()) ).willReturn(Optional.empty());
+
+        mvc.perform(
+                MockMvcRequestBuilders.patch(LOAN_API.concat("/1"))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json)
+        ).andExpect( status().isNotFound() );
+
+        Mockito.verify(loanService, Mockito.never()).update(Mockito.any(Loan.class));
+    }
+
+    @Test
+    @DisplayName("Deve filtrar empréstimos")
+    public void findLoansTest() throws Exception {
+        //Cenário
+        Book book = Book.builder().id(1L).title("As aventuras").author("Artur").isbn("321").build();
+        Loan loan = Loan.builder().id(1L).customer("Fulano").customerEmail("fulano@email.com")
+                .book(book).loanDate(LocalDate.now()).build();
+
+        BDDMockito.given( loanService.find(Mockito.eq("321"), Mockito.eq("Fulano"), Mockito.any(Pageable.class)) )
+                .willReturn(new PageImpl<Loan>(Arrays.asList(loan), PageRequest.of(0, 10), 1));
+
+        String queryString = String.format("?isbn=%s&customer=%s&page=0&size=10", book.getIsbn(), loan.getCustomer());
+
+        //Execução e Verificações
+        mvc.perform(
+                MockMvcRequestBuilders.get(LOAN_API.concat(queryString))
+                        .accept(MediaType.APPLICATION_JSON)
+        )
+                .andExpect( status().isOk() )
+                .andExpect( jsonPath("content", Matchers.hasSize(1)) )
+                .andExpect( jsonPath("content[0].id").value(1) )
+                .andExpect( jsonPath("content[0].isbn").value("321") )
+                .andExpect( jsonPath("content[0].email").value("fulano@email.com") )
+                .andExpect( jsonPath("content[0].book.title").value("As aventuras") )
+                .andExpect( jsonPath("totalElements").value(1) )
+                .andExpect( jsonPath("pageable.pageSize").value(10) )
+                .andExpect( jsonPath("pageable.pageNumber").value(0) );
+    }
 }
@@ -0,0 +1,132 @@
+package com.gustavowendel.libraryapi.model.repository;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.repository.BookKeyset;
+import com.gustavowendel.libraryapi.model.entity.repository.BookRepository;
+import com.gustavowendel.libraryapi.service.cache.EntityCacheRegions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.gustavowendel.libraryapi.support.StatementAssertions.assertStatementsAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@Import(EntityCacheRegions.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BookCacheTest {
+
+    @Autowired
+    BookRepository repository;
+
+    @Autowired
+    EntityCacheRegions regions;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    TransactionTemplate transaction;
+
+    @BeforeEach
+    public void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve obter o livro por id e por isbn do cache de segundo nível sem consultar o banco")
+    public void findFromCacheTest() {
+        //Cenário
+        Book book = repository.save(createNewBook("123"));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        regions.bindTo(registry);
+
+        //Execução
+        Optional<Book> byId = assertStatementsAtMost(0, () -> repository.findById(book.getId()));
+        Optional<Book> byIsbn = assertStatementsAtMost(0, () -> repository.findByIsbn("123"));
+
+        //Verificações
+        assertThat(byId).map(Book::getTitle).hasValue("Aventuras");
+        assertThat(byIsbn).map(Book::getId).hasValue(book.getId());
+        assertThat(registry.get("cache.gets").tags("cache", "book", "result", "hit").functionCounter().count())
+                .isGreaterThanOrEqualTo(2);
+        assertThat(registry.get("cache.size").tag("cache", "book").gauge().value()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve remover do cache apenas os livros alterados ou excluídos por comando direto")
+    public void evictOnDirectStatementsTest() {
+        //Cenário
+        Book book = repository.save(createNewBook("123"));
+        Book other = repository.save(createNewBook("456"));
+
+        //Execução
+        transaction.executeWithoutResult(status ->
+                repository.updateBook(book.getId(), "Outro título", "Outro autor", book.getVersion(), Instant.now()));
+
+        //Verificações
+        assertThat(repository.findById(book.getId())).map(Book::getTitle).hasValue("Outro título");
+        assertStatementsAtMost(0, () -> repository.findById(other.getId()));
+
+        //Execução
+        transaction.executeWithoutResult(status -> repository.deleteBooks(List.of(book.getId())));
+        Book saved = repository.save(createNewBook("123"));
+
+        //Verificações
+        assertThat(repository.findById(book.getId())).isEmpty();
+        assertThat(repository.findByIsbn("123")).map(Book::getId).hasValue(saved.getId());
+    }
+
+    @Test
+    @DisplayName("Não deve colocar no cache os livros lidos ao percorrer a tabela inteira")
+    public void tableWalksSkipCacheTest() {
+        //Cenário
+        Book book = repository.save(createNewBook("123"));
+        Cache cache = entityManagerFactory.getCache();
+        cache.evictAll();
+
+        //Execução
+        List<Book> batch = repository.findBatchAfter(BookKeyset.first(Sort.by("id")), 10);
+        List<Book> exported = new ArrayList<>();
+        transaction.executeWithoutResult(status -> repository.forEachBook(exported::add));
+
+        //Verificações
+        assertThat(batch).extracting(Book::getId).containsExactly(book.getId());
+        assertThat(exported).extracting(Book::getId).containsExactly(book.getId());
+        assertThat(cache.contains(Book.class, book.getId())).isFalse();
+    }
+
+    private Book createNewBook(String isbn) {
+        return Book.builder().title("Aventuras").author("Fulano").isbn(isbn).build();
+    }
+}
@@ -1,19 +1,35 @@
 package com.gustavowendel.libraryapi.model.repository;
 
+import com.gustavowendel.libraryapi.exception.IntegrityViolations;
 import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.Loan;
+import com.gustavowendel.libraryapi.model.entity.repository.BookKeyset;
 import com.gustavowendel.libraryapi.model.entity.repository.BookRepository;
+import com.gustavowendel.libraryapi.model.entity.repository.BookVersion;
+import com.gustavowendel.libraryapi.service.metrics.StatementCounter;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -92,7 +108,169 @@ public class BookRepositoryTest {
         assertThat(deleteBook).isNull();
     }
 
+    @Test
+    @DisplayName("Deve retornar apenas os isbns já cadastrados")
+    public void findExistingIsbnsTest() {
+        entityManager.persist(createNewBook("123"));
+        entityManager.persist(createNewBook("456"));
+
+        List<String> isbns = repository.findExistingIsbns(Arrays.asList("123", "789", "456"));
+
+        assertThat(isbns).containsExactlyInAnyOrder("123", "456");
+    }
+
+    @Test
+    @DisplayName("Deve impedir que dois livros sejam salvos com o mesmo isbn")
+    public void uniqueIsbnTest() {
+        entityManager.persist(createNewBook("123"));
+
+        Throwable exception = catchThrowable(() -> repository.saveAndFlush(createNewBook("123")));
+
+        assertThat(exception).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(IntegrityViolations.translate((DataIntegrityViolationException) exception))
+                .hasMessage("Isbn já cadastrado");
+    }
+
+    @Test
+    @DisplayName("Deve paginar por cursor ordenando pelo título e desempatando pelo id")
+    public void findAfterByTitleTest() {
+        //Cenário
+        Book first = entityManager.persist(Book.builder().title("A").author("Fulano").isbn("1").build());
+        Book second = entityManager.persist(Book.builder().title("B").author("Fulano").isbn("2").build());
+        Book third = entityManager.persist(Book.builder().title("B").author("Fulano").isbn("3").build());
+        Book fourth = entityManager.persist(Book.builder().title("C").author("Fulano").isbn("4").build());
+        BookKeyset keyset = BookKeyset.first(Sort.by("title"));
+
+        //Execução
+        List<Book> firstPage = repository.findAfter(new Book(), keyset, 2);
+        List<Book> secondPage = repository.findAfter(new Book(), keyset.after(firstPage.get(1)), 2);
+
+        //Verificações
+        assertThat(firstPage).containsExactly(first, second);
+        assertThat(secondPage).containsExactly(third, fourth);
+    }
+
+    @Test
+    @DisplayName("Deve paginar por cursor em ordem decrescente de id aplicando o filtro")
+    public void findAfterByIdDescendingWithFilterTest() {
+        Book first = entityManager.persist(Book.builder().title("As aventuras").author("Fulano").isbn("1").build());
+        entityManager.persist(Book.builder().title("O retorno").author("Fulano").isbn("2").build());
+        Book third = entityManager.persist(Book.builder().title("Novas AVENTURAS").author("Fulano").isbn("3").build());
+        BookKeyset keyset = BookKeyset.first(Sort.by(Sort.Direction.DESC, "id"));
+        Book filter = Book.builder().title("aventuras").build();
+
+        List<Book> firstPage = repository.findAfter(filter, keyset, 1);
+        List<Book> secondPage = repository.findAfter(filter, keyset.after(firstPage.get(0)), 1);
+
+        assertThat(firstPage).containsExactly(third);
+        assertThat(secondPage).containsExactly(first);
+    }
+
+    @Test
+    @DisplayName("Deve buscar a página filtrada e contar o total separadamente")
+    public void findAndCountContainingTest() {
+        //Cenário
+        Book first = entityManager.persist(Book.builder().title("As aventuras").author("Fulano").isbn("1").build());
+        entityManager.persist(Book.builder().title("O retorno").author("Fulano").isbn("2").build());
+        entityManager.persist(Book.builder().title("Novas AVENTURAS").author("Fulano").isbn("3").build());
+        Book filter = Book.builder().title("aventuras").build();
+
+        //Execução
+        List<Book> page = repository.findContaining(filter, PageRequest.of(1, 1, Sort.by("title").descending()), 2);
+        long total = repository.countContaining(filter);
+
+        //Verificações
+        assertThat(page).containsExactly(first);
+        assertThat(total).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve percorrer todos os livros em ordem de id desanexando cada um")
+    public void forEachBookTest() {
+        //Cenário
+        Book second = entityManager.persist(createNewBook("2"));
+        Book first = entityManager.persist(createNewBook("1"));
+        List<Book> visited = new ArrayList<>();
+
+        //Execução
+        repository.forEachBook(visited::add);
+
+        //Verificações
+        assertThat(visited).extracting(Book::getId).containsExactly(second.getId(), first.getId());
+        assertThat(visited).noneMatch(book -> entityManager.getEntityManager().contains(book));
+    }
+
     public Book createNewBook(String isbn) {
         return Book.builder().title("Aventuras").author("Fulano").isbn(isbn).build();
     }
+
+    @Test
+    @DisplayName("Deve incrementar a versão a cada atualização e recusar uma cópia desatualizada")
+    public void versionTest() {
+        //Cenário
+        Book book = entityManager.persistFlushFind(Book.builder().title("Aventuras").author("Fulano").isbn("123").build());
+        entityManager.detach(book);
+        Book stale = Book.builder().id(book.getId()).title("Aventuras").author("Ciclano").isbn("123")
+                .version(book.getVersion()).build();
+
+        //Execução
+        book.setTitle("Novas aventuras");
+        Book updated = repository.saveAndFlush(book);
+        Throwable exception = catchThrowable(() -> repository.saveAndFlush(stale));
+
+        //Verificações
+        assertThat(book.getVersion()).isEqualTo(0L);
+        assertThat(updated.getVersion()).isEqualTo(1L);
+        assertThat(updated.getLastModified()).isNotNull();
+        assertThat(repository.findVersionById(book.getId()))
+                .contains(new BookVersion(book.getId(), 1L, updated.getLastModified()));
+        assertThat(exception).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+
+    @Test
+    @DisplayName("Deve atualizar e deletar por id com um único comando informando as linhas afetadas")
+    public void modifyingByIdTest() {
+        //Cenário
+        Book book = entityManager.persistFlushFind(Book.builder().title("Aventuras").author("Fulano").isbn("123").build());
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        //Execução
+        StatementCounter.Statements statements = StatementCounter.start();
+        int staleVersion = repository.updateBook(book.getId(), "Outro", "Ciclano", 7L, now);
+        int matchingVersion = repository.updateBook(book.getId(), "Novas aventuras", "Ciclano", 0L, now);
+        int anyVersion = repository.updateBook(book.getId(), "Últimas aventuras", "Ciclano", null, now);
+        int missing = repository.updateBook(Long.MAX_VALUE, "Outro", "Ciclano", null, now);
+        StatementCounter.stop(statements);
+        entityManager.clear();
+        Book updated = entityManager.find(Book.class, book.getId());
+
+        //Verificações
+        assertThat(new int[]{staleVersion, matchingVersion, anyVersion, missing}).containsExactly(0, 1, 1, 0);
+        assertThat(statements.getTotal()).isEqualTo(4);
+        assertThat(updated.getTitle()).isEqualTo("Últimas aventuras");
+        assertThat(updated.getVersion()).isEqualTo(2L);
+        assertThat(updated.getLastModified()).isEqualTo(now);
+        assertThat(repository.deleteBook(book.getId())).isEqualTo(1);
+        assertThat(repository.deleteBook(book.getId())).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Deve selecionar para exclusão em lote apenas os livros sem empréstimos")
+    public void findIdsWithoutLoansTest() {
+        //Cenário
+        Book loaned = entityManager.persist(Book.builder().title("Aventuras").author("Fulano").isbn("1").build());
+        Book free = entityManager.persist(Book.builder().title("Aventuras").author("Fulano").isbn("2").build());
+        entityManager.persist(Loan.builder().book(loaned).customer("Fulano").loanDate(LocalDate.now()).returned(true).build());
+        entityManager.flush();
+
+        //Execução
+        List<Long> ids = repository.findIdsWithoutLoans(Arrays.asList(loaned.getId(), free.getId(), Long.MAX_VALUE));
+        int deleted = repository.deleteBooks(ids);
+        Throwable exception = catchThrowable(() -> repository.deleteBook(loaned.getId()));
+
+        //Verificações
+        assertThat(ids).containsExactly(free.getId());
+        assertThat(deleted).isEqualTo(1);
+        assertThat(IntegrityViolations.translate((DataIntegrityViolationException) exception)).hasMessage("Book has loans");
+    }
 }
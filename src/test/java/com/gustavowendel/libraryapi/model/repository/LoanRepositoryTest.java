@@ -0,0 +1,205 @@
+package com.gustavowendel.libraryapi.model.repository;
+
+import com.gustavowendel.libraryapi.exception.IntegrityViolations;
+import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.Loan;
+import com.gustavowendel.libraryapi.model.entity.repository.CustomerLoan;
+import com.gustavowendel.libraryapi.model.entity.repository.LateLoan;
+import com.gustavowendel.libraryapi.model.entity.repository.LoanRepository;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static com.gustavowendel.libraryapi.support.StatementAssertions.assertStatementsAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class LoanRepositoryTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    LoanRepository repository;
+
+    @Test
+    @DisplayName("Deve verificar se existe empréstimo não devolvido para o livro")
+    public void existsByBookAndNotReturnedTest() {
+        //Cenário
+        Book book = createAndPersistBook("123");
+        entityManager.persist(createLoan(book, null));
+
+        //Execução
+        boolean exists = repository.existsByBookAndNotReturned(book);
+
+        //Verificação
+        assertThat(exists).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve retornar falso quando todos os empréstimos do livro foram devolvidos")
+    public void notExistsWhenReturnedTest() {
+        Book book = createAndPersistBook("123");
+        entityManager.persist(createLoan(book, true));
+
+        boolean exists = repository.existsByBookAndNotReturned(book);
+
+        assertThat(exists).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve impedir dois empréstimos ativos para o mesmo livro")
+    public void uniqueActiveLoanTest() {
+        Book book = createAndPersistBook("123");
+        entityManager.persist(createLoan(book, null));
+
+        Throwable exception = catchThrowable(() -> repository.saveAndFlush(createLoan(book, null)));
+
+        assertThat(exception).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(IntegrityViolations.translate((DataIntegrityViolationException) exception))
+                .hasMessage("Book already loaned");
+    }
+
+    @Test
+    @DisplayName("Deve permitir novo empréstimo de um livro já devolvido")
+    public void loanReturnedBookTest() {
+        Book book = createAndPersistBook("123");
+        entityManager.persist(createLoan(book, true));
+        entityManager.persist(createLoan(book, true));
+
+        Loan loan = repository.saveAndFlush(createLoan(book, null));
+
+        assertThat(loan.getId()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Deve liberar o livro ao devolver o empréstimo")
+    public void returnLoanTest() {
+        //Cenário
+        Book book = createAndPersistBook("123");
+        Loan loan = entityManager.persist(createLoan(book, null));
+
+        //Execução
+        loan.setReturned(true);
+        repository.saveAndFlush(loan);
+
+        //Verificações
+        assertThat(repository.existsByBookAndNotReturned(book)).isFalse();
+        assertThat(repository.findLoanedBookIds(Collections.singletonList(book.getId()))).isEmpty();
+        assertThat(repository.saveAndFlush(createLoan(book, null)).getId()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Deve buscar empréstimos atrasados não devolvidos após o checkpoint")
+    public void findLateLoansTest() {
+        //Cenário
+        LocalDate today = LocalDate.now();
+        Loan old = entityManager.persist(createLoan(createAndPersistBook("1"), null, today.minusDays(10)));
+        Loan late = entityManager.persist(createLoan(createAndPersistBook("2"), null, today.minusDays(5)));
+        entityManager.persist(createLoan(createAndPersistBook("3"), true, today.minusDays(5)));
+        entityManager.persist(createLoan(createAndPersistBook("4"), null, today));
+
+        //Execução
+        List<LateLoan> result = repository.findLateLoans(today.minusDays(3), old.getLoanDate(), old.getId(), PageRequest.of(0, 10));
+
+        //Verificações
+        assertThat(result).extracting(LateLoan::getId).containsExactly(late.getId());
+        assertThat(result.get(0).getCustomerEmail()).isEqualTo("fulano@email.com");
+    }
+
+    @Test
+    @DisplayName("Deve filtrar empréstimos carregando os livros na mesma consulta")
+    public void findByBookIsbnAndCustomerTest() {
+        //Cenário
+        Book book = createAndPersistBook("123");
+        Loan loan = entityManager.persist(createLoan(book, null));
+        entityManager.persist(createLoan(createAndPersistBook("456"), null));
+        entityManager.persist(Loan.builder().book(createAndPersistBook("789")).customer("Ciclano")
+                .loanDate(LocalDate.now()).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        //Execução
+        Page<Loan> byIsbn = repository.findByBookIsbnAndCustomer("123", "Fulano", PageRequest.of(0, 10));
+        Page<Loan> byCustomer = repository.findByBookIsbnAndCustomer(null, "Fulano", PageRequest.of(0, 1, Sort.by("id")));
+        Page<Loan> all = assertStatementsAtMost(2, () -> {
+            Page<Loan> page = repository.findByBookIsbnAndCustomer(null, null, PageRequest.of(0, 2));
+            page.forEach(l -> l.getBook().getTitle());
+            return page;
+        });
+
+        //Verificações
+        assertThat(byIsbn.getContent()).extracting(Loan::getId).containsExactly(loan.getId());
+        assertThat(Hibernate.isInitialized(byIsbn.getContent().get(0).getBook())).isTrue();
+        assertThat(byIsbn.getContent().get(0).getBook().getIsbn()).isEqualTo("123");
+        assertThat(byCustomer.getContent()).hasSize(1);
+        assertThat(byCustomer.getTotalElements()).isEqualTo(2);
+        assertThat(all.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve carregar o livro do empréstimo apenas sob demanda")
+    public void lazyBookTest() {
+        Loan loan = entityManager.persist(createLoan(createAndPersistBook("123"), null));
+        entityManager.flush();
+        entityManager.clear();
+
+        Loan found = repository.findById(loan.getId()).get();
+
+        assertThat(Hibernate.isInitialized(found.getBook())).isFalse();
+        assertThat(found.getBook().getId()).isEqualTo(loan.getBook().getId());
+    }
+
+    @Test
+    @DisplayName("Deve listar o histórico e os empréstimos ativos do cliente")
+    public void findCustomerLoansTest() {
+        //Cenário
+        LocalDate today = LocalDate.now();
+        Loan returned = entityManager.persist(createLoan(createAndPersistBook("1"), true, today.minusDays(10)));
+        Loan active = entityManager.persist(createLoan(createAndPersistBook("2"), null, today));
+        entityManager.persist(Loan.builder().book(createAndPersistBook("3")).customer("Ciclano")
+                .loanDate(today).build());
+
+        //Execução
+        Page<CustomerLoan> history = repository.findCustomerLoans("Fulano", PageRequest.of(0, 10));
+        Page<CustomerLoan> borrowed = repository.findActiveCustomerLoans("Fulano", PageRequest.of(0, 10));
+
+        //Verificações
+        assertThat(history.getTotalElements()).isEqualTo(2);
+        assertThat(history.getContent()).extracting(CustomerLoan::getId).containsExactly(active.getId(), returned.getId());
+        assertThat(history.getContent().get(1).getReturned()).isTrue();
+        assertThat(borrowed.getTotalElements()).isEqualTo(1);
+        assertThat(borrowed.getContent().get(0).getIsbn()).isEqualTo("2");
+        assertThat(borrowed.getContent().get(0).getTitle()).isEqualTo("Aventuras");
+    }
+
+    private Book createAndPersistBook(String isbn) {
+        return entityManager.persist(Book.builder().title("Aventuras").author("Fulano").isbn(isbn).build());
+    }
+
+    private Loan createLoan(Book book, Boolean returned) {
+        return createLoan(book, returned, LocalDate.now());
+    }
+
+    private Loan createLoan(Book book, Boolean returned, LocalDate loanDate) {
+        return Loan.builder().book(book).customer("Fulano").customerEmail("fulano@email.com")
+                .loanDate(loanDate).returned(returned).build();
+    }
+}
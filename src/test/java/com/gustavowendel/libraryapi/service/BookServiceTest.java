@@ -3,18 +3,33 @@ package com.gustavowendel.libraryapi.service;
 
 import com.gustavowendel.libraryapi.exception.BusinessException;
 import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.repository.BookKeyset;
 import com.gustavowendel.libraryapi.model.entity.repository.BookRepository;
+import com.gustavowendel.libraryapi.model.entity.repository.BookVersion;
+import com.gustavowendel.libraryapi.service.cache.BookCountCache;
+import com.gustavowendel.libraryapi.service.cache.BookIsbnCache;
+import com.gustavowendel.libraryapi.service.cache.BookVersionCache;
 import com.gustavowendel.libraryapi.service.impl.BookServiceImpl;
+import com.gustavowendel.libraryapi.service.search.BookSearchIndex;
+import com.gustavowendel.libraryapi.service.writebehind.BookUpdateBuffer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.data.domain.*;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -35,7 +50,10 @@ public class BookServiceTest {
 
     @BeforeEach
     public void setUp(){
-        this.service = new BookServiceImpl(repository);
+        this.service = new BookServiceImpl(repository, new BookIsbnCache(100, Duration.ofMinutes(10)),
+                new BookCountCache(repository, 100, Duration.ofMinutes(1), Duration.ofMinutes(10)),
+                new BookSearchIndex(repository, false), new BookVersionCache(100, Duration.ofMinutes(1)),
+                new BookUpdateBuffer(repository, null, false, Duration.ofMillis(200)));
     }
 
     @Test
@@ -79,6 +97,20 @@ public class BookServiceTest {
         verify(repository, never()).save(book);
     }
 
+    @Test
+    @DisplayName("Deve lançar erro de negócio quando a base rejeitar o isbn duplicado")
+    public void shouldTranslateUniqueIsbnViolation(){
+        Book book = createValidBook();
+        when( repository.save(book) )
+                .thenThrow(new DataIntegrityViolationException("Unique index violation: UK_BOOK_ISBN_INDEX_1"));
+
+        Throwable exception = catchThrowable(() -> service.save(book));
+
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Isbn já cadastrado");
+    }
+
     @Test
     @DisplayName("Deve obter um livro por id")
     public void getByIdTest(){
@@ -128,6 +160,28 @@ public class BookServiceTest {
         verify(repository, times(1)).delete(book);
     }
 
+    @Test
+    @DisplayName("Deve deletar livros em lote por id em blocos, sem carregá-los")
+    public void deleteAllByIdTest() {
+        //Cenário
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1500; id++) {
+            ids.add(id);
+        }
+        ids.add(1L);
+        when(repository.findIdsWithoutLoans(anyCollection()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<Collection<Long>>getArgument(0)).subList(0, 10));
+
+        //Execução
+        int deleted = service.deleteAllById(ids);
+
+        //Verificações
+        assertThat(deleted).isEqualTo(20);
+        verify(repository, times(2)).findIdsWithoutLoans(anyCollection());
+        verify(repository, times(2)).deleteBooks(argThat(chunk -> chunk.size() == 10));
+        verify(repository, never()).findAllById(any());
+    }
+
     @Test
     @DisplayName("Deve ocorrer erro ao tentar deletar um livro inexistente.")
     public void deleteInvalidBookTest() {
@@ -165,6 +219,86 @@ public class BookServiceTest {
 
     }
 
+    @Test
+    @DisplayName("Deve consultar a versão do livro uma única vez e acompanhar as atualizações")
+    public void getVersionTest() {
+        //Cenário
+        Instant modified = Instant.parse("2020-01-01T10:00:00Z");
+        when(repository.findVersionById(1L)).thenReturn(Optional.of(new BookVersion(1L, 0L, modified)));
+        Book updated = Book.builder().id(1L).isbn("123").version(1L).lastModified(modified.plusSeconds(60)).build();
+        when(repository.save(any(Book.class))).thenReturn(updated);
+
+        //Execução
+        Optional<BookVersion> first = service.getVersion(1L);
+        Optional<BookVersion> cached = service.getVersion(1L);
+        service.update(Book.builder().id(1L).version(0L).build());
+        Optional<BookVersion> afterUpdate = service.getVersion(1L);
+
+        //Verificações
+        assertThat(first.get().getVersion()).isEqualTo(0L);
+        assertThat(cached).isEqualTo(first);
+        assertThat(afterUpdate.get().getVersion()).isEqualTo(1L);
+        assertThat(afterUpdate.get().getLastModified()).isEqualTo(modified.plusSeconds(60));
+        verify(repository, times(1)).findVersionById(1L);
+    }
+
+    @Test
+    @DisplayName("Deve acumular as atualizações no modo write-behind e exibi-las nas leituras")
+    public void writeBehindUpdateTest() {
+        //Cenário
+        service = new BookServiceImpl(repository, new BookIsbnCache(100, Duration.ofMinutes(10)),
+                new BookCountCache(repository, 100, Duration.ofMinutes(1), Duration.ofMinutes(10)),
+                new BookSearchIndex(repository, false), new BookVersionCache(100, Duration.ofMinutes(1)),
+                new BookUpdateBuffer(repository, null, true, Duration.ofMillis(200)));
+        when(repository.findById(1L)).thenAnswer(invocation -> Optional.of(
+                Book.builder().id(1L).isbn("123").title("As aventuras").author("Fulano").version(2L).build()));
+
+        //Execução
+        Book first = service.getById(1L).get();
+        first.setTitle("Novas aventuras");
+        service.update(first);
+        Book second = service.getById(1L).get();
+        second.setAuthor("Ciclano");
+        Book updated = service.update(second);
+        Throwable stale = catchThrowable(() -> service.update(first));
+
+        //Verificações
+        assertThat(updated.getVersion()).isEqualTo(4L);
+        assertThat(service.getById(1L).get())
+                .extracting(Book::getTitle, Book::getAuthor, Book::getVersion)
+                .containsExactly("Novas aventuras", "Ciclano", 4L);
+        assertThat(service.getVersion(1L).get().getVersion()).isEqualTo(4L);
+        assertThat(stale).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verify(repository, never()).save(any(Book.class));
+    }
+
+    @Test
+    @DisplayName("Deve voltar à versão e ao texto gravados quando a atualização acumulada for descartada")
+    public void writeBehindConflictTest() {
+        //Cenário
+        BookSearchIndex index = new BookSearchIndex(repository, true);
+        BookUpdateBuffer buffer = new BookUpdateBuffer(repository, mock(PlatformTransactionManager.class), true, Duration.ofMillis(200));
+        service = new BookServiceImpl(repository, new BookIsbnCache(100, Duration.ofMinutes(10)),
+                new BookCountCache(repository, 100, Duration.ofMinutes(1), Duration.ofMinutes(10)),
+                index, new BookVersionCache(100, Duration.ofMinutes(1)), buffer);
+        Book stored = Book.builder().id(1L).isbn("123").title("Outras aventuras").author("Fulano").version(5L).build();
+        when(repository.findById(1L)).thenReturn(Optional.of(stored));
+        when(repository.findVersionById(1L)).thenReturn(Optional.of(BookVersion.of(stored)));
+        when(repository.updateAll(anyList())).thenReturn(Collections.singletonList(1L));
+
+        Book edited = Book.builder().id(1L).isbn("123").title("Novas aventuras").author("Fulano").version(2L).build();
+        service.update(edited);
+
+        //Execução
+        buffer.flush();
+
+        //Verificações
+        assertThat(service.getVersion(1L).get().getVersion()).isEqualTo(5L);
+        assertThat(index.search("novas", null, Sort.unsorted())).isEmpty();
+        assertThat(index.search("outras", null, Sort.unsorted()))
+                .extracting(BookSearchIndex.Entry::getId).containsExactly(1L);
+    }
+
     @Test
     @DisplayName("Deve ocorrer erro ao tentar atualizar um livro inexistente.")
     public void updateInvalidBookTest() {
@@ -200,6 +334,104 @@ public class BookServiceTest {
         assertThat(result.getPageable().getPageSize()).isEqualTo(10);
     }
 
+    @Test
+    @DisplayName("Deve filtrar os livros sem executar a consulta de total")
+    public void findBookWithoutCountTest() {
+        //Cenário
+        Book filter = createValidBook();
+        Pageable pageRequest = PageRequest.of(1, 2);
+        List<Book> books = Arrays.asList(
+                Book.builder().id(3L).build(), Book.builder().id(4L).build(), Book.builder().id(5L).build());
+        when(repository.findContaining(filter, pageRequest, 3)).thenReturn(books);
+
+        //Execução
+        Slice<Book> result = service.findWithoutCount(filter, pageRequest);
+
+        //Verificações
+        assertThat(result.getContent()).containsExactly(books.get(0), books.get(1));
+        assertThat(result.hasNext()).isTrue();
+        verify(repository, never()).findAll(any(Example.class), any(Pageable.class));
+        verify(repository, never()).countContaining(any(Book.class));
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar o total estimado entre as páginas da mesma busca")
+    public void findBookWithEstimatedCountTest() {
+        //Cenário
+        Book filter = createValidBook();
+        when(repository.findContaining(eq(filter), any(Pageable.class), eq(3)))
+                .thenReturn(Arrays.asList(Book.builder().id(1L).build(), Book.builder().id(2L).build(), Book.builder().id(3L).build()));
+        when(repository.countContaining(filter)).thenReturn(40L);
+
+        //Execução
+        Page<Book> first = service.findWithEstimatedCount(filter, PageRequest.of(0, 2));
+        Page<Book> second = service.findWithEstimatedCount(createValidBook(), PageRequest.of(1, 2));
+
+        //Verificações
+        assertThat(first.getTotalElements()).isEqualTo(40);
+        assertThat(second.getTotalElements()).isEqualTo(40);
+        verify(repository, times(1)).countContaining(filter);
+    }
+
+    @Test
+    @DisplayName("Deve calcular o total sem consultar o contador quando a última página é alcançada")
+    public void findLastPageWithEstimatedCountTest() {
+        Book filter = createValidBook();
+        when(repository.findContaining(eq(filter), any(Pageable.class), eq(3)))
+                .thenReturn(Collections.singletonList(Book.builder().id(5L).build()));
+
+        Page<Book> result = service.findWithEstimatedCount(filter, PageRequest.of(2, 2));
+
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        verify(repository, never()).countContaining(any(Book.class));
+    }
+
+    @Test
+    @DisplayName("Deve filtrar pelo índice em memória e carregar apenas os livros da página")
+    public void findBookWithSearchIndexTest() {
+        //Cenário
+        Book first = Book.builder().id(1L).isbn("001").author("Fulano").title("As Aventuras").build();
+        Book second = Book.builder().id(2L).isbn("002").author("Fulano").title("O retorno").build();
+        Book third = Book.builder().id(3L).isbn("003").author("Ciclano").title("Novas aventuras").build();
+        when(repository.findBatchAfter(any(BookKeyset.class), anyInt()))
+                .thenReturn(Arrays.asList(first, second, third));
+        when(repository.findAllById(Collections.singletonList(3L))).thenReturn(Collections.singletonList(third));
+
+        BookSearchIndex searchIndex = new BookSearchIndex(repository, true);
+        searchIndex.build();
+        service = new BookServiceImpl(repository, new BookIsbnCache(100, Duration.ofMinutes(10)),
+                new BookCountCache(repository, 100, Duration.ofMinutes(1), Duration.ofMinutes(10)), searchIndex,
+                new BookVersionCache(100, Duration.ofMinutes(1)), new BookUpdateBuffer(repository, null, false, Duration.ofMillis(200)));
+
+        //Execução
+        Page<Book> result = service.find(Book.builder().title("AVENTURAS").build(),
+                PageRequest.of(0, 1, Sort.by("id").descending()));
+
+        //Verificações
+        assertThat(result.getContent()).containsExactly(third);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        verify(repository, never()).findAll(any(Example.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve buscar um registro a mais para saber se existe próxima fatia sem contar o total")
+    public void findAfterTest() {
+        //Cenário
+        Book filter = createValidBook();
+        BookKeyset keyset = BookKeyset.first(Sort.by("title"));
+        List<Book> books = Arrays.asList(
+                Book.builder().id(1L).build(), Book.builder().id(2L).build(), Book.builder().id(3L).build());
+        when(repository.findAfter(filter, keyset, 3)).thenReturn(books);
+
+        //Execução
+        Slice<Book> result = service.findAfter(filter, keyset, 2);
+
+        //Verificações
+        assertThat(result.getContent()).containsExactly(books.get(0), books.get(1));
+        assertThat(result.hasNext()).isTrue();
+        verify(repository, never()).count();
+    }
+
     @Test
     @DisplayName("deve obter um livro pelo isbn")
     public void getBookByIsbnTest(){
@@ -215,6 +447,57 @@ public class BookServiceTest {
         verify(repository, times(1)).findByIsbn(isbn);
     }
 
+    @Test
+    @DisplayName("Deve lembrar que um isbn não está cadastrado até que um livro seja salvo com ele")
+    public void getMissingBookByIsbnTest(){
+        Book book = createValidBook();
+        when(repository.findByIsbn(book.getIsbn())).thenReturn(Optional.empty());
+        when(repository.save(book)).thenReturn(Book.builder().id(1L).isbn(book.getIsbn()).build());
+
+        service.getBookByIsbn(book.getIsbn());
+        Optional<Book> missing = service.getBookByIsbn(book.getIsbn());
+        service.save(book);
+        service.getBookByIsbn(book.getIsbn());
+
+        assertThat(missing).isEmpty();
+        verify(repository, times(2)).findByIsbn(book.getIsbn());
+    }
+
+    @Test
+    @DisplayName("Deve consultar a base novamente após salvar um livro com isbn antes inexistente")
+    public void evictMissingIsbnOnSaveTest(){
+        Book book = createValidBook();
+        when(repository.existsByIsbn(book.getIsbn())).thenReturn(false, true);
+        when(repository.save(book)).thenReturn(Book.builder().id(1L).isbn(book.getIsbn()).build());
+
+        service.save(book);
+        Throwable exception = catchThrowable(() -> service.save(book));
+
+        assertThat(exception).isInstanceOf(BusinessException.class).hasMessage("Isbn já cadastrado");
+        verify(repository, times(2)).existsByIsbn(book.getIsbn());
+    }
+
+    @Test
+    @DisplayName("Deve salvar em lote apenas os livros com isbn ainda não cadastrado")
+    public void saveAllBooksTest(){
+        //Cenário
+        Book first = Book.builder().isbn("001").author("fulano").title("As aventuras").build();
+        Book registered = Book.builder().isbn("002").author("fulano").title("O retorno").build();
+        Book repeated = Book.builder().isbn("001").author("ciclano").title("As aventuras").build();
+        List<Book> books = Arrays.asList(first, registered, repeated);
+
+        when(repository.findExistingIsbns(anyList())).thenReturn(Collections.singletonList("002"));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        //Execução
+        List<Book> saved = service.saveAll(books);
+
+        //Verificações
+        assertThat(saved).containsExactly(first);
+        verify(repository, times(1)).findExistingIsbns(Arrays.asList("001", "002", "001"));
+        verify(repository, never()).existsByIsbn(anyString());
+    }
+
     private Book createValidBook() {
         return Book.builder().isbn("123").author("fulano").title("As aventuras").build();
     }
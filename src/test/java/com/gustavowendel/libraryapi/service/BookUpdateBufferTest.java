@@ -0,0 +1,98 @@
+package com.gustavowendel.libraryapi.service;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.repository.BookRepository;
+import com.gustavowendel.libraryapi.service.writebehind.BookUpdateBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class BookUpdateBufferTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    BookRepository repository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    BookUpdateBuffer buffer;
+
+    @BeforeEach
+    public void setUp() {
+        buffer = new BookUpdateBuffer(repository, transactionManager, true, Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("Deve gravar apenas a última de várias atualizações do mesmo livro")
+    public void coalesceUpdatesTest() {
+        //Cenário
+        Book book = persistBook("123");
+        Book other = persistBook("456");
+
+        //Execução
+        Book edited = buffer.update(withTitle(book, "Primeira edição"));
+        edited = buffer.update(withTitle(edited, "Segunda edição"));
+        buffer.update(withTitle(other, "Outra edição"));
+        List<Book> written = buffer.flush();
+
+        //Verificações
+        assertThat(written).hasSize(2);
+        entityManager.clear();
+        Book stored = entityManager.find(Book.class, book.getId());
+        assertThat(stored.getTitle()).isEqualTo("Segunda edição");
+        assertThat(stored.getVersion()).isEqualTo(2L);
+        assertThat(stored.getLastModified()).isEqualTo(edited.getLastModified());
+        assertThat(entityManager.find(Book.class, other.getId()).getTitle()).isEqualTo("Outra edição");
+        assertThat(buffer.getVersion(book.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve descartar a atualização quando o livro foi alterado por outro caminho")
+    public void conflictingUpdateTest() {
+        //Cenário
+        Book book = persistBook("123");
+        buffer.update(withTitle(book, "Edição atrasada"));
+        entityManager.getEntityManager()
+                .createQuery("update Book b set b.title = 'Outra', b.version = b.version + 1 where b.id = :id")
+                .setParameter("id", book.getId())
+                .executeUpdate();
+
+        //Execução
+        List<Book> written = buffer.flush();
+
+        //Verificações
+        assertThat(written).isEmpty();
+        entityManager.clear();
+        assertThat(entityManager.find(Book.class, book.getId()).getTitle()).isEqualTo("Outra");
+        assertThat(buffer.getVersion(book.getId())).isEmpty();
+    }
+
+    private Book persistBook(String isbn) {
+        Book book = entityManager.persistFlushFind(Book.builder().title("Aventuras").author("Fulano").isbn(isbn).build());
+        entityManager.detach(book);
+        return book;
+    }
+
+    private Book withTitle(Book book, String title) {
+        return Book.builder().id(book.getId()).isbn(book.getIsbn()).author(book.getAuthor()).title(title)
+                .version(book.getVersion()).build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.gustavowendel.libraryapi.service;
+
+import com.gustavowendel.libraryapi.service.impl.EmailServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmailServiceTest {
+
+    @Test
+    @DisplayName("Deve enviar os e-mails enfileirados em lotes")
+    public void sendMailsInBatchesTest() throws Exception {
+        //Cenário
+        RecordingMailSender mailSender = new RecordingMailSender();
+        EmailServiceImpl service = newService(mailSender, 2, 3);
+        CompletableFuture<List<String>> delivery =
+                service.sendMails("Atraso", "Devolva o livro", Arrays.asList("a@mail.com", "b@mail.com", "c@mail.com"));
+
+        //Execução
+        service.start();
+        service.stop();
+
+        //Verificações
+        assertThat(delivery).isCompletedWithValue(Collections.emptyList());
+        assertThat(mailSender.batches).containsExactly(
+                Arrays.asList("a@mail.com", "b@mail.com"),
+                Collections.singletonList("c@mail.com"));
+        assertThat(mailSender.lastMessage.getText()).isEqualTo("Devolva o livro");
+        assertThat(mailSender.lastMessage.getFrom()).isEqualTo("mail@library-api.com");
+    }
+
+    @Test
+    @DisplayName("Deve reenviar apenas os destinatários que falharam")
+    public void retryFailedRecipientsTest() throws Exception {
+        //Cenário
+        SimpleMailMessage rejected = new SimpleMailMessage();
+        rejected.setTo("b@mail.com");
+        RecordingMailSender mailSender = new RecordingMailSender();
+        mailSender.failures.add(new MailSendException(Collections.singletonMap(rejected, new RuntimeException("busy"))));
+
+        EmailServiceImpl service = newService(mailSender, 10, 3);
+        CompletableFuture<List<String>> delivery =
+                service.sendMails("Atraso", "Devolva o livro", Arrays.asList("a@mail.com", "b@mail.com"));
+
+        //Execução
+        service.start();
+        service.stop();
+
+        //Verificações
+        assertThat(delivery).isCompletedWithValue(Collections.emptyList());
+        assertThat(mailSender.batches).containsExactly(
+                Arrays.asList("a@mail.com", "b@mail.com"),
+                Collections.singletonList("b@mail.com"));
+    }
+
+    @Test
+    @DisplayName("Deve desistir do lote após o número máximo de tentativas")
+    public void giveUpAfterMaxAttemptsTest() throws Exception {
+        RecordingMailSender mailSender = new RecordingMailSender();
+        mailSender.failures.addAll(Collections.nCopies(5, new MailSendException("relay down")));
+
+        EmailServiceImpl service = newService(mailSender, 10, 2);
+        CompletableFuture<List<String>> delivery =
+                service.sendMails("Atraso", "Devolva o livro", Arrays.asList("a@mail.com", "b@mail.com"));
+        service.start();
+        service.stop();
+
+        assertThat(mailSender.batches).hasSize(2);
+        assertThat(delivery).isCompletedWithValue(Arrays.asList("a@mail.com", "b@mail.com"));
+    }
+
+    private EmailServiceImpl newService(MailSender mailSender, int batchSize, int maxAttempts) {
+        return new EmailServiceImpl(mailSender, "mail@library-api.com", 10, batchSize, 1000, maxAttempts, Duration.ofMillis(1));
+    }
+
+    static class RecordingMailSender implements MailSender {
+
+        final List<List<String>> batches = new ArrayList<>();
+        final Deque<MailException> failures = new ArrayDeque<>();
+        SimpleMailMessage lastMessage;
+
+        @Override
+        public void send(SimpleMailMessage simpleMessage) {
+            send(new SimpleMailMessage[]{simpleMessage});
+        }
+
+        @Override
+        public void send(SimpleMailMessage... simpleMessages) {
+            batches.add(Arrays.stream(simpleMessages).map(message -> message.getTo()[0]).collect(Collectors.toList()));
+            lastMessage = simpleMessages[simpleMessages.length - 1];
+            if (!failures.isEmpty()) {
+                throw failures.poll();
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.gustavowendel.libraryapi.service;
+
+import com.gustavowendel.libraryapi.exception.BusinessException;
+import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.Loan;
+import com.gustavowendel.libraryapi.model.entity.repository.BookRepository;
+import com.gustavowendel.libraryapi.model.entity.repository.LoanRepository;
+import com.gustavowendel.libraryapi.service.guard.ActiveLoanGuard;
+import com.gustavowendel.libraryapi.service.guard.ConstraintActiveLoanGuard;
+import com.gustavowendel.libraryapi.service.guard.StripedLockActiveLoanGuard;
+import com.gustavowendel.libraryapi.service.impl.LoanServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+public class LoanConcurrencyTest {
+
+    private static final int BOOKS = 20;
+    private static final int KIOSKS = 16;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    List<Book> books;
+
+    @BeforeEach
+    public void setUp() {
+        List<Book> newBooks = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            newBooks.add(Book.builder().title("Aventuras").author("Fulano").isbn("concurrency-" + i).build());
+        }
+        books = bookRepository.saveAll(newBooks);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        loanRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch(books);
+    }
+
+    @Test
+    @DisplayName("Não deve emprestar o mesmo livro duas vezes com quiosques concorrentes usando a constraint")
+    public void constraintGuardTest() throws Exception {
+        assertSingleActiveLoanPerBook(new ConstraintActiveLoanGuard());
+    }
+
+    @Test
+    @DisplayName("Não deve emprestar o mesmo livro duas vezes com quiosques concorrentes usando locks particionados")
+    public void stripedLockGuardTest() throws Exception {
+        assertSingleActiveLoanPerBook(new StripedLockActiveLoanGuard(64));
+    }
+
+    private void assertSingleActiveLoanPerBook(ActiveLoanGuard guard) throws Exception {
+        LoanService service = new LoanServiceImpl(loanRepository, guard);
+        ExecutorService kiosks = Executors.newFixedThreadPool(KIOSKS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int kiosk = 0; kiosk < KIOSKS; kiosk++) {
+                String customer = "Kiosk " + kiosk;
+                futures.add(kiosks.submit(() -> {
+                    List<Book> shuffled = new ArrayList<>(books);
+                    Collections.shuffle(shuffled);
+                    start.await();
+                    for (Book book : shuffled) {
+                        try {
+                            service.save(Loan.builder().book(book).customer(customer).loanDate(LocalDate.now()).build());
+                            created.incrementAndGet();
+                        } catch (BusinessException ex) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            kiosks.shutdownNow();
+        }
+
+        List<Long> bookIds = books.stream().map(Book::getId).collect(Collectors.toList());
+        assertThat(created.get()).isEqualTo(BOOKS);
+        assertThat(rejected.get()).isEqualTo(BOOKS * (KIOSKS - 1));
+        assertThat(loanRepository.findLoanedBookIds(bookIds)).containsExactlyInAnyOrderElementsOf(bookIds);
+    }
+}
@@ -4,16 +4,25 @@ import com.gustavowendel.libraryapi.exception.BusinessException;
 import com.gustavowendel.libraryapi.model.entity.Book;
 import com.gustavowendel.libraryapi.model.entity.Loan;
 import com.gustavowendel.libraryapi.model.entity.repository.LoanRepository;
+import com.gustavowendel.libraryapi.service.guard.ConstraintActiveLoanGuard;
 import com.gustavowendel.libraryapi.service.impl.LoanServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
@@ -30,7 +39,7 @@ public class LoanServiceTest {
 
     @BeforeEach
     public void setUp(){
-        this.service = new LoanServiceImpl(repository);
+        this.service = new LoanServiceImpl(repository, new ConstraintActiveLoanGuard());
     }
 
     @Test
@@ -84,4 +93,107 @@ public class LoanServiceTest {
 
         verify(repository, never()).save(savingLoan);
     }
+
+    @Test
+    @DisplayName("deve lançar erro de negócio quando a base rejeitar um segundo empréstimo ativo")
+    public void concurrentLoanedBookTest(){
+        Book book = Book.builder().id(1L).build();
+        Loan savingLoan = Loan.builder().book(book).customer("Fulano").loanDate(LocalDate.now()).build();
+
+        when(repository.existsByBookAndNotReturned(book)).thenReturn(false);
+        when(repository.save(savingLoan))
+                .thenThrow(new DataIntegrityViolationException("Unique index violation: UK_LOAN_ACTIVE_BOOK_INDEX_2"));
+
+        Throwable exception = catchThrowable(() -> service.save(savingLoan));
+
+        assertThat(exception).isInstanceOf(BusinessException.class)
+                .hasMessage("Book already loaned");
+    }
+
+    @Test
+    @DisplayName("deve salvar em lote apenas os empréstimos de livros disponíveis")
+    public void saveAllLoansTest(){
+        Book available = Book.builder().id(1L).build();
+        Book loaned = Book.builder().id(2L).build();
+        Loan first = Loan.builder().book(available).customer("Fulano").loanDate(LocalDate.now()).build();
+        Loan alreadyLoaned = Loan.builder().book(loaned).customer("Ciclano").loanDate(LocalDate.now()).build();
+        Loan repeated = Loan.builder().book(available).customer("Beltrano").loanDate(LocalDate.now()).build();
+
+        when(repository.findLoanedBookIds(anyList())).thenReturn(Collections.singletonList(2L));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Loan> saved = service.saveAll(Arrays.asList(first, alreadyLoaned, repeated));
+
+        assertThat(saved).containsExactly(first);
+        verify(repository, times(1)).findLoanedBookIds(Arrays.asList(1L, 2L, 1L));
+        verify(repository, never()).existsByBookAndNotReturned(any());
+    }
+
+    @Test
+    @DisplayName("deve obter as informações de um empréstimo pelo id")
+    public void getLoanDetaisTest(){
+        Loan loan = Loan.builder().id(1L).book(Book.builder().id(1L).build()).customer("Fulano").build();
+        when(repository.findById(1L)).thenReturn(Optional.of(loan));
+
+        Optional<Loan> result = service.getById(1L);
+
+        assertThat(result).contains(loan);
+        verify(repository).findById(1L);
+    }
+
+    @Test
+    @DisplayName("deve atualizar um empréstimo")
+    public void updateLoanTest(){
+        Loan loan = Loan.builder().id(1L).book(Book.builder().id(1L).build()).returned(true).build();
+        when(repository.save(loan)).thenReturn(loan);
+
+        Loan updated = service.update(loan);
+
+        assertThat(updated.getReturned()).isTrue();
+        verify(repository).save(loan);
+    }
+
+    @Test
+    @DisplayName("deve lançar erro ao reabrir um empréstimo de um livro que já foi emprestado novamente")
+    public void reopenLoanOfLoanedBookTest(){
+        Loan loan = Loan.builder().id(1L).book(Book.builder().id(1L).build()).returned(false).build();
+        when(repository.save(loan))
+                .thenThrow(new DataIntegrityViolationException("Unique index violation: UK_LOAN_ACTIVE_BOOK_INDEX_2"));
+
+        Throwable exception = catchThrowable(() -> service.update(loan));
+
+        assertThat(exception).isInstanceOf(BusinessException.class).hasMessage("Book already loaned");
+    }
+
+    @Test
+    @DisplayName("Deve filtrar empréstimos pelo isbn e cliente")
+    public void findLoanTest() {
+        //Cenário
+        Loan loan = Loan.builder().id(1L).customer("Fulano").book(Book.builder().id(1L).isbn("321").build()).build();
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        when(repository.findByBookIsbnAndCustomer("321", "Fulano", pageRequest))
+                .thenReturn(new PageImpl<>(Collections.singletonList(loan), pageRequest, 1));
+
+        //Execução
+        Page<Loan> result = service.find("321", "Fulano", pageRequest);
+
+        //Verificações
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getContent()).containsExactly(loan);
+        assertThat(result.getPageable().getPageSize()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Deve buscar apenas os empréstimos ativos do cliente quando solicitado")
+    public void getCustomerLoansTest() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        when(repository.findActiveCustomerLoans("Fulano", pageRequest)).thenReturn(Page.empty());
+        when(repository.findCustomerLoans("Fulano", pageRequest)).thenReturn(Page.empty());
+
+        service.getCustomerLoans("Fulano", true, pageRequest);
+        service.getCustomerLoans("Fulano", false, pageRequest);
+
+        verify(repository, times(1)).findActiveCustomerLoans("Fulano", pageRequest);
+        verify(repository, times(1)).findCustomerLoans("Fulano", pageRequest);
+    }
 }
@@ -0,0 +1,120 @@
+package com.gustavowendel.libraryapi.service;
+
+import com.gustavowendel.libraryapi.model.entity.JobCheckpoint;
+import com.gustavowendel.libraryapi.model.entity.repository.JobCheckpointRepository;
+import com.gustavowendel.libraryapi.model.entity.repository.LateLoan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class ScheduleServiceTest {
+
+    @MockBean
+    LoanService loanService;
+
+    @MockBean
+    EmailService emailService;
+
+    @MockBean
+    JobCheckpointRepository checkpointRepository;
+
+    ScheduleService service;
+
+    @BeforeEach
+    public void setUp() {
+        service = new ScheduleService(loanService, emailService, checkpointRepository, 3, 2, "Atraso", "Devolva o livro");
+        when(emailService.sendMails(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
+    }
+
+    @Test
+    @DisplayName("Deve notificar os empréstimos atrasados página a página a partir do último checkpoint")
+    public void sendMailToLateLoansTest() {
+        //Cenário
+        LocalDate loanedUntil = LocalDate.now().minusDays(3);
+        LocalDate lastDate = loanedUntil.minusDays(10);
+        when(checkpointRepository.findById(ScheduleService.LATE_LOANS_JOB))
+                .thenReturn(Optional.of(new JobCheckpoint(ScheduleService.LATE_LOANS_JOB, lastDate, 7L)));
+        when(loanService.getLateLoans(loanedUntil, lastDate, 7L, 2))
+                .thenReturn(Arrays.asList(lateLoan(8L, lastDate, "a@mail.com"), lateLoan(9L, loanedUntil, null)));
+        when(loanService.getLateLoans(loanedUntil, loanedUntil, 9L, 2))
+                .thenReturn(Collections.singletonList(lateLoan(10L, loanedUntil, "c@mail.com")));
+
+        //Execução
+        service.sendMailToLateLoans();
+
+        //Verificações
+        verify(emailService).sendMails("Atraso", "Devolva o livro", Collections.singletonList("a@mail.com"));
+        verify(emailService).sendMails("Atraso", "Devolva o livro", Collections.singletonList("c@mail.com"));
+        verify(checkpointRepository, times(2)).save(any(JobCheckpoint.class));
+        verify(loanService, times(2)).getLateLoans(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve começar do início quando o job nunca rodou e não salvar checkpoint sem atrasos")
+    public void noLateLoansTest() {
+        when(checkpointRepository.findById(ScheduleService.LATE_LOANS_JOB)).thenReturn(Optional.empty());
+        when(loanService.getLateLoans(any(), any(), any(), anyInt())).thenReturn(Collections.emptyList());
+
+        service.sendMailToLateLoans();
+
+        verify(loanService).getLateLoans(LocalDate.now().minusDays(3), LocalDate.of(1970, 1, 1), 0L, 2);
+        verify(emailService, never()).sendMails(any(), any(), any());
+        verify(checkpointRepository, never()).save(any(JobCheckpoint.class));
+    }
+
+    @Test
+    @DisplayName("Deve parar o checkpoint no primeiro empréstimo cujo e-mail não foi entregue")
+    public void stopAtUndeliveredMailTest() {
+        //Cenário
+        LocalDate loanedUntil = LocalDate.now().minusDays(3);
+        when(checkpointRepository.findById(ScheduleService.LATE_LOANS_JOB)).thenReturn(Optional.empty());
+        when(loanService.getLateLoans(any(), any(), any(), anyInt()))
+                .thenReturn(Arrays.asList(lateLoan(8L, loanedUntil, "a@mail.com"), lateLoan(9L, loanedUntil, "b@mail.com")));
+        when(emailService.sendMails(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(Collections.singletonList("b@mail.com")));
+
+        //Execução
+        service.sendMailToLateLoans();
+
+        //Verificações
+        ArgumentCaptor<JobCheckpoint> saved = ArgumentCaptor.forClass(JobCheckpoint.class);
+        verify(checkpointRepository).save(saved.capture());
+        assertThat(saved.getValue().getLastLoanId()).isEqualTo(8L);
+        verify(loanService, times(1)).getLateLoans(any(), any(), any(), anyInt());
+    }
+
+    private LateLoan lateLoan(Long id, LocalDate loanDate, String email) {
+        return new LateLoan() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDate getLoanDate() {
+                return loanDate;
+            }
+
+            @Override
+            public String getCustomerEmail() {
+                return email;
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.gustavowendel.libraryapi.service.cache;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class BookIsbnCacheTest {
+
+    BookIsbnCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new BookIsbnCache(100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Deve lembrar os isbns não cadastrados até serem removidos do cache")
+    public void cacheMissingIsbnTest() {
+        //Cenário
+        AtomicInteger queries = new AtomicInteger();
+
+        //Execução
+        cache.get("123", isbn -> { queries.incrementAndGet(); return Optional.empty(); });
+        boolean cached = cache.exists("123", isbn -> { queries.incrementAndGet(); return true; });
+        cache.evictIsbn("123");
+        Optional<Book> found = cache.get("123", isbn -> {
+            queries.incrementAndGet();
+            return Optional.of(Book.builder().id(1L).isbn(isbn).build());
+        });
+
+        //Verificações
+        assertThat(cached).isFalse();
+        assertThat(found).map(Book::getId).hasValue(1L);
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Não deve marcar o isbn como não cadastrado quando ele é removido do cache durante a consulta")
+    public void evictDuringLoadTest() throws Exception {
+        //Cenário
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch evicting = new CountDownLatch(1);
+
+        //Execução
+        CompletableFuture<Boolean> lookup = CompletableFuture.supplyAsync(() -> cache.exists("123", isbn -> {
+            loading.countDown();
+            await(evicting);
+            // Gives the evict time to run before the result is stored.
+            sleep();
+            return false;
+        }));
+        await(loading);
+        CompletableFuture<Void> save = CompletableFuture.runAsync(() -> {
+            evicting.countDown();
+            cache.evictIsbn("123");
+        });
+        lookup.get(5, TimeUnit.SECONDS);
+        save.get(5, TimeUnit.SECONDS);
+
+        //Verificações
+        assertThat(cache.exists("123", isbn -> true)).isTrue();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
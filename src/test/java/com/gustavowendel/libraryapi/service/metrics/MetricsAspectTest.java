@@ -0,0 +1,68 @@
+package com.gustavowendel.libraryapi.service.metrics;
+
+import com.gustavowendel.libraryapi.exception.BusinessException;
+import com.gustavowendel.libraryapi.model.entity.Loan;
+import com.gustavowendel.libraryapi.service.LoanService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class MetricsAspectTest {
+
+    SimpleMeterRegistry registry;
+    LoanService target;
+    LoanService service;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        target = Mockito.mock(LoanService.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new MetricsAspect(registry));
+        service = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Deve registrar o tempo de cada chamada ao serviço")
+    public void timeServiceTest() {
+        //Cenário
+        Mockito.when(target.getById(1L)).thenReturn(Optional.empty());
+
+        //Execução
+        service.getById(1L);
+        service.getById(1L);
+
+        //Verificações
+        assertThat(registry.get("library.service")
+                .tag("class", "LoanService")
+                .tag("method", "getById")
+                .tag("exception", "none")
+                .timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve contar erros de negócio pelo motivo")
+    public void countBusinessErrorTest() {
+        //Cenário
+        Loan loan = Loan.builder().build();
+        Mockito.when(target.save(loan)).thenThrow(new BusinessException("Book already loaned"));
+
+        //Execução
+        Throwable exception = catchThrowable(() -> service.save(loan));
+
+        //Verificações
+        assertThat(exception).isInstanceOf(BusinessException.class);
+        assertThat(registry.get("library.business.errors").tag("reason", "Book already loaned").counter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("library.service").tag("method", "save").tag("exception", "BusinessException")
+                .timer().count()).isEqualTo(1);
+    }
+}
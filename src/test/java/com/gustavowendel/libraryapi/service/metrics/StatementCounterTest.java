@@ -0,0 +1,49 @@
+package com.gustavowendel.libraryapi.service.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StatementCounterTest {
+
+    StatementCounter inspector = new StatementCounter();
+
+    @Test
+    @DisplayName("Deve contar as instruções apenas dentro do escopo aberto")
+    public void countStatementsTest() {
+        //Cenário
+        inspector.inspect("select 1");
+
+        //Execução
+        StatementCounter.Statements outer = StatementCounter.start();
+        inspector.inspect("insert into book values (?)");
+        StatementCounter.Statements inner = StatementCounter.start();
+        inspector.inspect("select 2");
+        StatementCounter.stop(inner);
+        inspector.inspect("select 3");
+        StatementCounter.stop(outer);
+        inspector.inspect("select 4");
+
+        //Verificações
+        assertThat(inner.getTotal()).isEqualTo(1);
+        assertThat(outer.getTotal()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve apontar selects repetidos como possível N+1")
+    public void repeatedSelectsTest() {
+        StatementCounter.Statements statements = StatementCounter.start();
+        for (int i = 0; i < 5; i++) {
+            inspector.inspect("select b.id from book b where b.id=?");
+            inspector.inspect("update loan set returned=? where id=?");
+        }
+        inspector.inspect("select l.id from loan l");
+        StatementCounter.stop(statements);
+
+        assertThat(statements.getTotal()).isEqualTo(11);
+        assertThat(statements.getRepeatedSelects(5))
+                .containsOnlyKeys("select b.id from book b where b.id=?")
+                .containsValue(5);
+    }
+}
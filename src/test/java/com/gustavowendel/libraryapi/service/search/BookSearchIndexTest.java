@@ -0,0 +1,103 @@
+package com.gustavowendel.libraryapi.service.search;
+
+import com.gustavowendel.libraryapi.model.entity.Book;
+import com.gustavowendel.libraryapi.model.entity.repository.BookKeyset;
+import com.gustavowendel.libraryapi.model.entity.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class BookSearchIndexTest {
+
+    BookSearchIndex index;
+
+    @MockBean
+    BookRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        index = new BookSearchIndex(repository, true);
+        index.put(Book.builder().id(1L).title("As Aventuras").author("Fulano").build());
+        index.put(Book.builder().id(2L).title("O retorno").author("Fulano de Tal").build());
+        index.put(Book.builder().id(3L).title("Novas aventuras").author("Ciclano").build());
+    }
+
+    @Test
+    @DisplayName("Deve encontrar livros por trecho do título ou autor ignorando maiúsculas")
+    public void searchBySubstringTest() {
+        //Execução
+        List<Long> byTitle = ids(index.search("VENTURA", null, Sort.unsorted()));
+        List<Long> byBoth = ids(index.search("aventuras", "fulano", Sort.unsorted()));
+        List<Long> none = ids(index.search("aventuras", "beltrano", Sort.unsorted()));
+
+        //Verificações
+        assertThat(byTitle).containsExactly(1L, 3L);
+        assertThat(byBoth).containsExactly(1L);
+        assertThat(none).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve aceitar termos menores que um trigrama e ordenar pelo id")
+    public void searchShortQuerySortedTest() {
+        List<Long> result = ids(index.search("o", null, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertThat(result).containsExactly(3L, 2L);
+        assertThat(index.canSort(Sort.by("id"))).isTrue();
+        assertThat(index.canSort(Sort.by("title"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve refletir a atualização e a remoção de livros")
+    public void updateAndRemoveTest() {
+        //Execução
+        index.put(Book.builder().id(1L).title("O retorno do rei").author("Fulano").build());
+        index.remove(3L);
+
+        //Verificações
+        assertThat(ids(index.search("aventuras", null, Sort.unsorted()))).isEmpty();
+        assertThat(ids(index.search("retorno", null, Sort.by("id")))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Não deve recolocar no índice um livro removido enquanto ele é reconstruído")
+    public void removeDuringBuildTest() {
+        //Cenário
+        BookSearchIndex rebuilt = new BookSearchIndex(repository, true);
+        when(repository.findBatchAfter(any(BookKeyset.class), anyInt())).thenAnswer(invocation -> {
+            List<Book> batch = Arrays.asList(
+                    Book.builder().id(1L).title("As Aventuras").author("Fulano").build(),
+                    Book.builder().id(2L).title("Novas aventuras").author("Ciclano").build());
+            rebuilt.remove(2L);
+            rebuilt.put(Book.builder().id(1L).title("O retorno").author("Fulano").build());
+            return batch;
+        });
+
+        //Execução
+        rebuilt.build();
+
+        //Verificações
+        assertThat(rebuilt.isReady()).isTrue();
+        assertThat(ids(rebuilt.search("aventuras", null, Sort.unsorted()))).isEmpty();
+        assertThat(ids(rebuilt.search("retorno", null, Sort.unsorted()))).containsExactly(1L);
+    }
+
+    private List<Long> ids(List<BookSearchIndex.Entry> entries) {
+        return entries.stream().map(BookSearchIndex.Entry::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,27 @@
+package com.gustavowendel.libraryapi.support;
+
+import com.gustavowendel.libraryapi.service.metrics.StatementCounter;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class StatementAssertions {
+
+    private StatementAssertions() {
+    }
+
+    public static <T> T assertStatementsAtMost(int max, Supplier<T> action) {
+        StatementCounter.Statements statements = StatementCounter.start();
+        T result;
+        try {
+            result = action.get();
+        } finally {
+            StatementCounter.stop(statements);
+        }
+        assertThat(statements.getTotal())
+                .as("statements issued")
+                .isLessThanOrEqualTo(max);
+        return result;
+    }
+}